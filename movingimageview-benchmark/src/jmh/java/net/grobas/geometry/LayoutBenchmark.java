@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.geometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layout computation across image and canvas sizes, the work done on every
+ * size, image or relative params change.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LayoutBenchmark {
+
+    //small, screen sized, big photo, panorama and tall images
+    @Param({"320x240", "1920x1080", "4000x3000", "8000x1000", "1000x6000"})
+    public String image;
+
+    //phone portrait, phone landscape and banner canvas
+    @Param({"1080x1920", "1920x1080", "1080x300"})
+    public String canvas;
+
+    private float imageWidth, imageHeight;
+    private float canvasWidth, canvasHeight;
+    private MovingLayout layout;
+
+    @Setup
+    public void setUp() {
+        String[] imageSize = image.split("x");
+        imageWidth = Float.parseFloat(imageSize[0]);
+        imageHeight = Float.parseFloat(imageSize[1]);
+        String[] canvasSize = canvas.split("x");
+        canvasWidth = Float.parseFloat(canvasSize[0]);
+        canvasHeight = Float.parseFloat(canvasSize[1]);
+        layout = new MovingLayout();
+    }
+
+    @Benchmark
+    public float compute() {
+        layout.compute(imageWidth, imageHeight, canvasWidth, canvasHeight, 3f, 0.2f);
+        return layout.getPathWidth() + layout.getPathHeight();
+    }
+
+    /**
+     * Unchanged inputs, the common case on relayouts.
+     */
+    @Benchmark
+    public boolean memoizedUpdate() {
+        return layout.update(imageWidth, imageHeight, canvasWidth, canvasHeight, 3f, 0.2f);
+    }
+
+    @Benchmark
+    public int sampleSize() {
+        layout.compute(imageWidth, imageHeight, canvasWidth, canvasHeight, 3f, 0.2f);
+        return MovingLayout.calculateSampleSize((int) imageWidth, (int) imageHeight,
+                imageWidth * layout.getScale(), imageHeight * layout.getScale());
+    }
+
+}
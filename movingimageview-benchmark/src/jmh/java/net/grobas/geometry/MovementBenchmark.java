@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.geometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared custom movement, scaled to the view offsets and evaluated with per step easing.
+ * Same travel as auto movement, so results compare with <code>PathBenchmark</code>.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MovementBenchmark {
+
+    //10 seconds at 60fps
+    private static final float FRAME_STEP = 1f / 600f;
+
+    @Param({"400x300", "3000x2000"})
+    public String path;
+
+    private float pathWidth, pathHeight;
+    private MovementPath movement;
+    private MovingPath movingPath;
+    private MovingPath easedPath;
+    private final float[] position = new float[2];
+    private float fraction;
+
+    @Setup
+    public void setUp() {
+        String[] size = path.split("x");
+        pathWidth = Float.parseFloat(size[0]);
+        pathHeight = Float.parseFloat(size[1]);
+        //compiled once
+        movement = new MovementPath.Builder()
+                .addVerticalMoveToDown()
+                .addDiagonalMoveToUpRight()
+                .addHorizontalMoveToLeft()
+                .addDiagonalMoveToDownRight()
+                .addHorizontalMoveToLeft()
+                .addVerticalMoveToUp()
+                .build();
+        movingPath = new MovingPath();
+        movingPath.set(movement, pathWidth, pathHeight);
+        easedPath = new MovingPath();
+        easedPath.set(new MovementPath.Builder()
+                .setEasing(EasingTable.ACCELERATE)
+                .addVerticalMoveToDown()
+                .setEasing(EasingTable.ACCELERATE_DECELERATE)
+                .addDiagonalMoveToUpRight()
+                .addHorizontalMoveToLeft()
+                .setEasing(EasingTable.DECELERATE)
+                .addDiagonalMoveToDownRight()
+                .addHorizontalMoveToLeft()
+                .addVerticalMoveToUp()
+                .build(), pathWidth, pathHeight);
+    }
+
+    /**
+     * Scaling a shared movement to the view offsets, instead of compiling it.
+     */
+    @Benchmark
+    public float scaleShared() {
+        movingPath.set(movement, pathWidth, pathHeight);
+        return movingPath.getLength();
+    }
+
+    /**
+     * Per segment easing, each leg reads its own table.
+     */
+    @Benchmark
+    public float segmentEasedFrame() {
+        fraction = nextFraction();
+        int index = easedPath.getSegment(fraction);
+        float segmentFraction = easedPath.getSegmentFraction(index, fraction);
+        segmentFraction = easedPath.getEasing(index).get(segmentFraction);
+        easedPath.getPoint(index, segmentFraction, position);
+        return position[0] + position[1];
+    }
+
+    private float nextFraction() {
+        float next = fraction + FRAME_STEP;
+        return (next > 1f) ? 0f : next;
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.geometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Path compilation and per frame position evaluation for every movement type.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PathBenchmark {
+
+    //10 seconds at 60fps
+    private static final float FRAME_STEP = 1f / 600f;
+
+    //auto, horizontal, vertical and diagonal
+    @Param({"0", "1", "2", "3"})
+    public int movementType;
+
+    @Param({"400x300", "3000x2000"})
+    public String path;
+
+    private float pathWidth, pathHeight;
+    private MovingPath movingPath;
+    private final float[] position = new float[2];
+    private float fraction;
+
+    @Setup
+    public void setUp() {
+        String[] size = path.split("x");
+        pathWidth = Float.parseFloat(size[0]);
+        pathHeight = Float.parseFloat(size[1]);
+        movingPath = new MovingPath();
+        movingPath.set(movementType, pathWidth, pathHeight);
+    }
+
+    @Benchmark
+    public float compile() {
+        movingPath.set(movementType, pathWidth, pathHeight);
+        return movingPath.getLength();
+    }
+
+    @Benchmark
+    public float frame() {
+        fraction = nextFraction();
+        movingPath.getPosition(fraction, position);
+        return position[0] + position[1];
+    }
+
+    /**
+     * Same as the path engine does, with accelerate decelerate easing per segment.
+     */
+    @Benchmark
+    public float easedFrame() {
+        fraction = nextFraction();
+        int index = movingPath.getSegment(fraction);
+        float segmentFraction = movingPath.getSegmentFraction(index, fraction);
+        segmentFraction = (float) (Math.cos((segmentFraction + 1) * Math.PI) / 2.0f) + 0.5f;
+        movingPath.getPoint(index, segmentFraction, position);
+        return position[0] + position[1];
+    }
+
+    /**
+     * Same easing from the shared lookup table, no trig per frame.
+     */
+    @Benchmark
+    public float tableEasedFrame() {
+        fraction = nextFraction();
+        int index = movingPath.getSegment(fraction);
+        float segmentFraction = movingPath.getSegmentFraction(index, fraction);
+        segmentFraction = EasingTable.ACCELERATE_DECELERATE.get(segmentFraction);
+        movingPath.getPoint(index, segmentFraction, position);
+        return position[0] + position[1];
+    }
+
+    private float nextFraction() {
+        float next = fraction + FRAME_STEP;
+        return (next > 1f) ? 0f : next;
+    }
+
+}
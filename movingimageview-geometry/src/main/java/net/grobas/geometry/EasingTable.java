@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.geometry;
+
+/**
+ * Easing curve sampled once into a lookup table. Evaluation is an array read and a linear
+ * interpolation between two entries, no trig and no allocations. Immutable, shared by
+ * any number of paths and views.
+ */
+public final class EasingTable {
+
+    //entries, not counting the end one
+    public static final int DEFAULT_SIZE = 256;
+
+    public static final EasingTable LINEAR = new EasingTable(new Curve() {
+        @Override
+        public float get(float input) {
+            return input;
+        }
+    });
+
+    public static final EasingTable ACCELERATE_DECELERATE = new EasingTable(new Curve() {
+        @Override
+        public float get(float input) {
+            return (float) (Math.cos((input + 1) * Math.PI) / 2.0f) + 0.5f;
+        }
+    });
+
+    public static final EasingTable ACCELERATE = new EasingTable(new Curve() {
+        @Override
+        public float get(float input) {
+            return input * input;
+        }
+    });
+
+    public static final EasingTable DECELERATE = new EasingTable(new Curve() {
+        @Override
+        public float get(float input) {
+            return 1f - (1f - input) * (1f - input);
+        }
+    });
+
+    private final float[] values;
+    private final int size;
+
+    public EasingTable(Curve curve) {
+        this(curve, DEFAULT_SIZE);
+    }
+
+    /**
+     * @param curve easing curve, only called here.
+     * @param size  table entries, more entries follow sharp curves closer.
+     */
+    public EasingTable(Curve curve, int size) {
+        this.size = Math.max(size, 1);
+        values = new float[this.size + 1];
+        for (int i = 0; i <= this.size; i++)
+            values[i] = curve.get(i / (float) this.size);
+    }
+
+    /**
+     * Eases a fraction.
+     *
+     * @param input linear fraction, from 0 to 1.
+     * @return eased fraction.
+     */
+    public float get(float input) {
+        if (input <= 0f)
+            return values[0];
+        if (input >= 1f)
+            return values[size];
+
+        float position = input * size;
+        int index = Math.min((int) position, size - 1);
+        float start = values[index];
+        return start + (values[index + 1] - start) * (position - index);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Easing function sampled by the table.
+     */
+    public interface Curve {
+
+        float get(float input);
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.geometry;
+
+/**
+ * Immutable movement on normalized coordinates, from 0 to 1 on both axes.
+ * Compiled once and shared by any number of views, each one scales it to its own
+ * offsets with {@link MovingPath#set(MovementPath, float, float)}.
+ */
+public final class MovementPath {
+
+    //never handed out, nothing can change it
+    final MovingPath path;
+
+    private MovementPath(MovingPath path) {
+        this.path = path;
+    }
+
+    public int size() {
+        return path.size();
+    }
+
+    public int getType(int index) {
+        return path.getType(index);
+    }
+
+    public float getStartX(int index) {
+        return path.getStartX(index);
+    }
+
+    public float getStartY(int index) {
+        return path.getStartY(index);
+    }
+
+    public float getEndX(int index) {
+        return path.getEndX(index);
+    }
+
+    public float getEndY(int index) {
+        return path.getEndY(index);
+    }
+
+    public float getStartZoom(int index) {
+        return path.getStartZoom(index);
+    }
+
+    public float getEndZoom(int index) {
+        return path.getEndZoom(index);
+    }
+
+    public boolean hasZoom() {
+        return path.hasZoom();
+    }
+
+    /**
+     * @return step easing, null if it uses the animator one.
+     */
+    public EasingTable getEasing(int index) {
+        return path.getEasing(index);
+    }
+
+    /**
+     * Builds a movement segment by segment.
+     */
+    public static final class Builder {
+
+        private MovingPath mList;
+
+        public Builder() {
+            mList = new MovingPath();
+        }
+
+        public Builder addHorizontalMoveToRight() {
+            mList.addHorizontal(0, 1);
+            return this;
+        }
+
+        public Builder addHorizontalMoveToLeft() {
+            mList.addHorizontal(1, 0);
+            return this;
+        }
+
+        public Builder addVerticalMoveToDown() {
+            mList.addVertical(0, 1);
+            return this;
+        }
+
+        public Builder addVerticalMoveToUp() {
+            mList.addVertical(1, 0);
+            return this;
+        }
+
+        public Builder addDiagonalMoveToDownRight() {
+            mList.addDiagonal(0, 1, 0, 1);
+            return this;
+        }
+
+        public Builder addDiagonalMoveToDownLeft() {
+            mList.addDiagonal(1, 0, 0, 1);
+            return this;
+        }
+
+        public Builder addDiagonalMoveToUpRight() {
+            mList.addDiagonal(0, 1, 1, 0);
+            return this;
+        }
+
+        public Builder addDiagonalMoveToUpLeft() {
+            mList.addDiagonal(1, 0, 1, 0);
+            return this;
+        }
+
+        /**
+         * Zooms in place, next moves keep the zoom.
+         *
+         * @param zoom zoom over the layout scale, from 1.
+         */
+        public Builder addZoomIn(float zoom) {
+            mList.addZoom(Math.max(zoom, 1f));
+            return this;
+        }
+
+        /**
+         * Zooms back to the layout scale in place.
+         */
+        public Builder addZoomOut() {
+            mList.addZoom(1f);
+            return this;
+        }
+
+        /**
+         * Eases the steps added from now on, each step can have its own curve.
+         *
+         * @param easing step easing, null to use the animator interpolator.
+         */
+        public Builder setEasing(EasingTable easing) {
+            mList.setEasing(easing);
+            return this;
+        }
+
+        /**
+         * The builder can go on adding segments, the built path won't change.
+         *
+         * @return compiled movement.
+         */
+        public MovementPath build() {
+            MovingPath path = new MovingPath();
+            path.set(mList, 1f, 1f);
+            return new MovementPath(path);
+        }
+    }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.geometry;
+
+/**
+ * Movement type, scale and path size of an image inside a canvas.
+ * No view state, so it can also be computed before the image is decoded.
+ */
+public final class MovingLayout {
+
+    private int movementType;
+    private float scale;
+    private float translateX, translateY;
+    private float pathWidth, pathHeight;
+    private boolean valid;
+
+    //last inputs
+    private float lastImageWidth, lastImageHeight;
+    private float lastCanvasWidth, lastCanvasHeight;
+    private float lastMaxRelativeSize, lastMinRelativeOffset;
+    private boolean computed;
+
+    /**
+     * Computes the layout only when some input changed since last call.
+     *
+     * @return true if it was computed again.
+     */
+    public boolean update(float imageWidth, float imageHeight, float canvasWidth, float canvasHeight,
+                          float maxRelativeSize, float minRelativeOffset) {
+        if (computed && imageWidth == lastImageWidth && imageHeight == lastImageHeight
+                && canvasWidth == lastCanvasWidth && canvasHeight == lastCanvasHeight
+                && maxRelativeSize == lastMaxRelativeSize && minRelativeOffset == lastMinRelativeOffset)
+            return false;
+
+        computed = true;
+        lastImageWidth = imageWidth;
+        lastImageHeight = imageHeight;
+        lastCanvasWidth = canvasWidth;
+        lastCanvasHeight = canvasHeight;
+        lastMaxRelativeSize = maxRelativeSize;
+        lastMinRelativeOffset = minRelativeOffset;
+        compute(imageWidth, imageHeight, canvasWidth, canvasHeight, maxRelativeSize, minRelativeOffset);
+        return true;
+    }
+
+    /**
+     * Forgets last inputs, next update always computes.
+     */
+    public void invalidate() {
+        computed = false;
+    }
+
+    /**
+     * Computes the layout.
+     *
+     * @param imageWidth        image width.
+     * @param imageHeight       image height.
+     * @param canvasWidth       canvas width, without padding.
+     * @param canvasHeight      canvas height, without padding.
+     * @param maxRelativeSize   max relative image size.
+     * @param minRelativeOffset min relative path offset.
+     * @return false if there's nothing to animate.
+     */
+    public boolean compute(float imageWidth, float imageHeight, float canvasWidth, float canvasHeight,
+                           float maxRelativeSize, float minRelativeOffset) {
+        valid = false;
+        if (canvasHeight == 0 && canvasWidth == 0)
+            return false;
+
+        //Offset is the difference between image and canvas including the min relative size.
+        float minSizeX = imageWidth * minRelativeOffset;
+        float minSizeY = imageHeight * minRelativeOffset;
+        float offsetWidth = (imageWidth - canvasWidth - minSizeX) > 0 ? imageWidth - canvasWidth : 0;
+        float offsetHeight = (imageHeight - canvasHeight - minSizeY) > 0 ? imageHeight - canvasHeight : 0;
+
+        movementType = MovingPath.AUTO;
+        scale = 1f;
+        translateX = 0;
+        translateY = 0;
+        float scaleByImage = Math.max(imageWidth / canvasWidth, imageHeight / canvasHeight);
+
+        //Image is too small to performs any animation, needs a scale
+        if (offsetWidth == 0 && offsetHeight == 0) {
+            float sW = canvasWidth / imageWidth;
+            float sH = canvasHeight / imageHeight;
+
+            if (sW > sH) {
+                scale = Math.min(sW, maxRelativeSize);
+                translateX = (canvasWidth - imageWidth * scale) / 2f;
+                movementType = MovingPath.VERTICAL;
+
+            } else if (sW < sH) {
+                scale = Math.min(sH, maxRelativeSize);
+                translateY = (canvasHeight - imageHeight * scale) / 2f;
+                movementType = MovingPath.HORIZONTAL;
+
+            } else {
+                scale = Math.max(sW, maxRelativeSize);
+                movementType = (scale == sW) ? MovingPath.NONE :
+                        MovingPath.DIAGONAL;
+            }
+
+          //Width too small to perform any horizontal animation, scale to width
+        } else if (offsetWidth == 0) {
+            scale = canvasWidth / imageWidth;
+            movementType = MovingPath.VERTICAL;
+
+          //Height too small to perform any vertical animation, scale to height
+        } else if (offsetHeight == 0) {
+            scale = canvasHeight / imageHeight;
+            movementType = MovingPath.HORIZONTAL;
+
+          //Enough size but too big, resize down
+        } else if (scaleByImage > maxRelativeSize) {
+            scale = maxRelativeSize / scaleByImage;
+            if(imageWidth * scale < canvasWidth || imageHeight * scale < canvasHeight) {
+                scale = Math.max(canvasWidth / imageWidth, canvasHeight / imageHeight);
+            }
+        }
+
+        pathWidth = (imageWidth * scale) - canvasWidth;
+        pathHeight = (imageHeight * scale) - canvasHeight;
+        valid = scale != 0;
+        return valid;
+    }
+
+    public int getMovementType() {
+        return movementType;
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    public float getTranslateX() {
+        return translateX;
+    }
+
+    public float getTranslateY() {
+        return translateY;
+    }
+
+    public float getPathWidth() {
+        return pathWidth;
+    }
+
+    public float getPathHeight() {
+        return pathHeight;
+    }
+
+    /**
+     * @return false if last computed layout has nothing to animate.
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Biggest power of two that keeps the bitmap at least as big as it's shown.
+     *
+     * @param rawWidth    encoded image width.
+     * @param rawHeight   encoded image height.
+     * @param shownWidth  width once scaled.
+     * @param shownHeight height once scaled.
+     * @return sample size.
+     */
+    public static int calculateSampleSize(int rawWidth, int rawHeight, float shownWidth, float shownHeight) {
+        int sampleSize = 1;
+        while ((rawWidth / (sampleSize * 2)) >= shownWidth && (rawHeight / (sampleSize * 2)) >= shownHeight)
+            sampleSize *= 2;
+        return sampleSize;
+    }
+
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.geometry;
+
+/**
+ * Polyline of movement segments backed by primitive arrays.
+ * Each segment keeps its start and end waypoints, start and end zoom, its easing and the
+ * accumulated path length, so a position can be evaluated by arc length without allocations.
+ */
+public final class MovingPath {
+
+    //movement types
+    public static final int HORIZONTAL = 1;
+    public static final int VERTICAL = 2;
+    public static final int DIAGONAL = 3;
+    public static final int ZOOM = 4;
+    public static final int AUTO = 0;
+    public static final int NONE = -1;
+
+    //zoom of the zoom movement type
+    public static final float DEFAULT_ZOOM = 1.5f;
+
+    private static final int SEGMENT_SIZE = 4;
+
+    private int[] types;
+    private float[] points;
+    private float[] zooms;
+    private float[] lengths;
+    //null easing is up to the caller
+    private EasingTable[] easings;
+    private EasingTable nextEasing;
+    private int count;
+    private float lastX, lastY;
+    private float lastZoom = 1f;
+    private boolean zoomed;
+    private float zoomLength;
+
+    public MovingPath() {
+        types = new int[6];
+        points = new float[6 * SEGMENT_SIZE];
+        zooms = new float[6 * 2];
+        lengths = new float[6];
+        easings = new EasingTable[6];
+    }
+
+    public void reset() {
+        count = 0;
+        lastX = 0;
+        lastY = 0;
+        lastZoom = 1f;
+        zoomed = false;
+        nextEasing = null;
+    }
+
+    /**
+     * Length a zoom change of 1 adds to the path, so zoom segments get a duration
+     * from speed too. Canvas corners move half its diagonal. Applies to segments added later.
+     *
+     * @param length zoom length in pixels.
+     */
+    public void setZoomLength(float length) {
+        zoomLength = length;
+    }
+
+    public float getZoomLength() {
+        return zoomLength;
+    }
+
+    /**
+     * Easing of the segments added from now on, until the path is reset.
+     *
+     * @param easing segment easing, null to leave it to the caller.
+     */
+    public void setEasing(EasingTable easing) {
+        nextEasing = easing;
+    }
+
+    /**
+     * Fills the path with the travel of a movement type.
+     *
+     * @param movementType movement type.
+     * @param width        path width.
+     * @param height       path height.
+     */
+    public void set(int movementType, float width, float height) {
+        reset();
+
+        switch (movementType) {
+            case HORIZONTAL:
+                addHorizontal(0, width);
+                addHorizontal(width, 0);
+                break;
+            case VERTICAL:
+                addVertical(0, height);
+                addVertical(height, 0);
+                break;
+            case DIAGONAL:
+                addDiagonal(0, width, 0, height);
+                addDiagonal(width, 0, height, 0);
+                break;
+            case AUTO:
+                addVertical(0, height);
+                addDiagonal(0, width, height, 0);
+                addHorizontal(width, 0);
+                addDiagonal(0, width, 0, height);
+                addHorizontal(width, 0);
+                addVertical(height, 0);
+                break;
+            case ZOOM:
+                //in and out on the path center
+                add(ZOOM, width / 2f, height / 2f, width / 2f, height / 2f, 1f, DEFAULT_ZOOM);
+                add(ZOOM, width / 2f, height / 2f, width / 2f, height / 2f, DEFAULT_ZOOM, 1f);
+        }
+    }
+
+    /**
+     * Fills the path with a normalized movement scaled to a size. Arrays are reused,
+     * nothing is allocated once they are big enough.
+     *
+     * @param movement normalized movement.
+     * @param width    path width.
+     * @param height   path height.
+     */
+    public void set(MovementPath movement, float width, float height) {
+        set(movement.path, width, height);
+    }
+
+    /**
+     * Copies a path scaled to a size.
+     */
+    void set(MovingPath source, float width, float height) {
+        reset();
+        for (int i = 0; i < source.size(); i++) {
+            nextEasing = source.getEasing(i);
+            add(source.getType(i), source.getStartX(i) * width, source.getStartY(i) * height,
+                    source.getEndX(i) * width, source.getEndY(i) * height,
+                    source.getStartZoom(i), source.getEndZoom(i));
+        }
+        nextEasing = null;
+    }
+
+    public void addHorizontal(float startValue, float endValue) {
+        add(HORIZONTAL, startValue, lastY, endValue, lastY);
+    }
+
+    public void addVertical(float startValue, float endValue) {
+        add(VERTICAL, lastX, startValue, lastX, endValue);
+    }
+
+    public void addDiagonal(float startW, float endW, float startH, float endH) {
+        add(DIAGONAL, startW, startH, endW, endH);
+    }
+
+    /**
+     * Zooms in place, from the current zoom.
+     *
+     * @param endZoom zoom over the layout scale, 1 is no zoom.
+     */
+    public void addZoom(float endZoom) {
+        add(ZOOM, lastX, lastY, lastX, lastY, lastZoom, endZoom);
+    }
+
+    private void add(int type, float startX, float startY, float endX, float endY) {
+        add(type, startX, startY, endX, endY, lastZoom, lastZoom);
+    }
+
+    private void add(int type, float startX, float startY, float endX, float endY,
+                     float startZoom, float endZoom) {
+        ensureCapacity(count + 1);
+        int p = count * SEGMENT_SIZE;
+        points[p] = startX;
+        points[p + 1] = startY;
+        points[p + 2] = endX;
+        points[p + 3] = endY;
+        zooms[count * 2] = startZoom;
+        zooms[count * 2 + 1] = endZoom;
+        types[count] = type;
+        easings[count] = nextEasing;
+        float distance = distance(Math.abs(endX - startX), Math.abs(endY - startY))
+                + Math.abs(endZoom - startZoom) * zoomLength;
+        lengths[count] = (count == 0) ? distance : lengths[count - 1] + distance;
+        lastX = endX;
+        lastY = endY;
+        lastZoom = endZoom;
+        zoomed |= startZoom != 1f || endZoom != 1f;
+        count++;
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= types.length)
+            return;
+
+        int capacity = Math.max(size, types.length * 2);
+        int[] newTypes = new int[capacity];
+        float[] newPoints = new float[capacity * SEGMENT_SIZE];
+        float[] newZooms = new float[capacity * 2];
+        float[] newLengths = new float[capacity];
+        EasingTable[] newEasings = new EasingTable[capacity];
+        System.arraycopy(types, 0, newTypes, 0, count);
+        System.arraycopy(points, 0, newPoints, 0, count * SEGMENT_SIZE);
+        System.arraycopy(zooms, 0, newZooms, 0, count * 2);
+        System.arraycopy(lengths, 0, newLengths, 0, count);
+        System.arraycopy(easings, 0, newEasings, 0, count);
+        types = newTypes;
+        points = newPoints;
+        zooms = newZooms;
+        lengths = newLengths;
+        easings = newEasings;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getType(int index) {
+        return types[index];
+    }
+
+    public EasingTable getEasing(int index) {
+        return easings[index];
+    }
+
+    public float getStartX(int index) {
+        return points[index * SEGMENT_SIZE];
+    }
+
+    public float getStartY(int index) {
+        return points[index * SEGMENT_SIZE + 1];
+    }
+
+    public float getEndX(int index) {
+        return points[index * SEGMENT_SIZE + 2];
+    }
+
+    public float getEndY(int index) {
+        return points[index * SEGMENT_SIZE + 3];
+    }
+
+    public float getStartZoom(int index) {
+        return zooms[index * 2];
+    }
+
+    public float getEndZoom(int index) {
+        return zooms[index * 2 + 1];
+    }
+
+    /**
+     * @return true if some segment zooms.
+     */
+    public boolean hasZoom() {
+        return zoomed;
+    }
+
+    /**
+     * Evaluates the zoom of one segment.
+     *
+     * @param index    segment index.
+     * @param fraction segment fraction, already interpolated.
+     * @return zoom over the layout scale.
+     */
+    public float getZoom(int index, float fraction) {
+        float start = zooms[index * 2];
+        return start + (zooms[index * 2 + 1] - start) * fraction;
+    }
+
+    /**
+     * Length of one segment.
+     *
+     * @param index segment index.
+     * @return segment length.
+     */
+    public float getDistance(int index) {
+        return (index == 0) ? lengths[0] : lengths[index] - lengths[index - 1];
+    }
+
+    /**
+     * Total length of the path.
+     *
+     * @return path length.
+     */
+    public float getLength() {
+        return (count == 0) ? 0 : lengths[count - 1];
+    }
+
+    /**
+     * Segment at a fraction of the whole path. Speed is constant along
+     * the path, so the fraction maps to arc length.
+     *
+     * @param fraction linear fraction of the path, from 0 to 1.
+     * @return segment index, 0 on empty paths.
+     */
+    public int getSegment(float fraction) {
+        float distance = fraction * getLength();
+        int index = 0;
+        while (index < count - 1 && lengths[index] < distance)
+            index++;
+        return index;
+    }
+
+    /**
+     * Fraction of a segment at a fraction of the whole path.
+     *
+     * @param index    segment index, from {@link #getSegment(float)}.
+     * @param fraction linear fraction of the path, from 0 to 1.
+     * @return linear fraction of the segment, from 0 to 1.
+     */
+    public float getSegmentFraction(int index, float fraction) {
+        float segmentLength = getDistance(index);
+        if (segmentLength <= 0)
+            return 1f;
+
+        float start = lengths[index] - segmentLength;
+        return Math.max(0f, Math.min(1f, (fraction * getLength() - start) / segmentLength));
+    }
+
+    /**
+     * Evaluates a point of one segment.
+     *
+     * @param index    segment index.
+     * @param fraction segment fraction, already interpolated.
+     * @param out      array where x and y are written.
+     */
+    public void getPoint(int index, float fraction, float[] out) {
+        int p = index * SEGMENT_SIZE;
+        out[0] = points[p] + (points[p + 2] - points[p]) * fraction;
+        out[1] = points[p + 1] + (points[p + 3] - points[p + 1]) * fraction;
+    }
+
+    /**
+     * Evaluates the position for a fraction of the whole path, without easing.
+     *
+     * @param fraction linear fraction of the path, from 0 to 1.
+     * @param out      array where x and y are written.
+     * @return index of the segment at that fraction.
+     */
+    public int getPosition(float fraction, float[] out) {
+        if (count == 0) {
+            out[0] = 0;
+            out[1] = 0;
+            return 0;
+        }
+
+        int index = getSegment(fraction);
+        getPoint(index, getSegmentFraction(index, fraction), out);
+        return index;
+    }
+
+    /**
+     * Travel time of a distance.
+     *
+     * @param distance distance in pixels.
+     * @param speed    speed in pixels per second.
+     * @return duration in ms.
+     */
+    public static long getDuration(float distance, int speed) {
+        return (long) ((distance / (float) speed) * 1000f);
+    }
+
+    private static float distance(float a, float b) {
+        return (float) Math.sqrt((a * a) + (b * b));
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.animation;
+
+import android.content.Context;
+import android.os.Debug;
+import android.test.InstrumentationTestCase;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Main thread cpu time per frame for 1, 10, 50 and 100 moving views, a shared ticker
+ * against one animator per view. Choreographer can't be driven from JMH, so it runs on
+ * a Jelly Bean or newer device; results go to logcat.
+ */
+public class MovingTickerBenchmark extends InstrumentationTestCase {
+
+    private static final String TAG = "MovingTickerBenchmark";
+    private static final int[] VIEW_COUNTS = {1, 10, 50, 100};
+    private static final long WARM_UP_MS = 1000;
+    private static final long RUN_MS = 3000;
+
+    public void testTickerAgainstAnimatorPerView() throws Throwable {
+        for (int count : VIEW_COUNTS) {
+            float perView = measure(count, false);
+            float ticker = measure(count, true);
+            Log.i(TAG, String.format(Locale.US, "%3d views: animator per view %.1f us/frame, shared ticker %.1f us/frame",
+                    count, perView, ticker));
+        }
+    }
+
+    /**
+     * Runs the views for a while and measures the main thread.
+     *
+     * @param count  moving views.
+     * @param shared true to use the shared ticker.
+     * @return main thread cpu time per frame in microseconds.
+     */
+    private float measure(final int count, final boolean shared) throws Throwable {
+        final Context context = getInstrumentation().getTargetContext();
+        final List<MovingViewAnimator> animators = new ArrayList<>();
+        final FrameCounter counter = new FrameCounter();
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < count; i++) {
+                    MovingViewAnimator animator = new MovingViewAnimator(new View(context),
+                            MovingViewAnimator.AUTO_MOVE, 400, 300);
+                    animator.setPathEngineEnabled(true);
+                    animator.setSharedTicker(shared);
+                    animator.start();
+                    animators.add(animator);
+                }
+            }
+        });
+
+        Thread.sleep(WARM_UP_MS);
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                counter.start();
+            }
+        });
+        Thread.sleep(RUN_MS);
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                counter.stop();
+                for (MovingViewAnimator animator : animators)
+                    animator.stop();
+            }
+        });
+        return counter.getCpuMicrosPerFrame();
+    }
+
+    /**
+     * Counts frames and main thread cpu time between start and stop. Only for UI thread use.
+     */
+    private static final class FrameCounter implements Choreographer.FrameCallback {
+
+        private boolean running;
+        private int frames;
+        private long startCpuNanos;
+        private long cpuNanos;
+
+        void start() {
+            running = true;
+            frames = 0;
+            startCpuNanos = Debug.threadCpuTimeNanos();
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        void stop() {
+            running = false;
+            cpuNanos = Debug.threadCpuTimeNanos() - startCpuNanos;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (!running)
+                return;
+
+            frames++;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        float getCpuMicrosPerFrame() {
+            return (frames > 0) ? cpuNanos / 1000f / frames : 0;
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.animation;
+
+/**
+ * Default quality policy. Power save and severe heat lower quality and pause views
+ * without focus; moderate heat and dropped frames halve the update rate.
+ */
+public class DefaultQualityPolicy implements MovingQualityPolicy {
+
+    //janky frames fraction that lowers the quality
+    private static final float MAX_JANK_RATE = 0.2f;
+
+    @Override
+    public int getQuality(boolean powerSave, int thermalStatus, float jankRate, boolean focused) {
+        if (powerSave || thermalStatus >= THERMAL_STATUS_SEVERE)
+            return focused ? QUALITY_LOW : QUALITY_PAUSED;
+        if (thermalStatus >= THERMAL_STATUS_MODERATE)
+            return focused ? QUALITY_REDUCED : QUALITY_LOW;
+        if (jankRate > MAX_JANK_RATE)
+            return QUALITY_REDUCED;
+        return QUALITY_FULL;
+    }
+
+}
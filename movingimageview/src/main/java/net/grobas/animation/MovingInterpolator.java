@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.animation;
+
+import android.view.animation.Interpolator;
+
+import net.grobas.geometry.EasingTable;
+
+/**
+ * Interpolator backed by an <code>EasingTable</code>. Any interpolator can be sampled once
+ * and shared by all views, each frame is then an array read.
+ */
+public final class MovingInterpolator implements Interpolator {
+
+    public static final MovingInterpolator LINEAR = new MovingInterpolator(EasingTable.LINEAR);
+    public static final MovingInterpolator ACCELERATE_DECELERATE =
+            new MovingInterpolator(EasingTable.ACCELERATE_DECELERATE);
+    public static final MovingInterpolator ACCELERATE = new MovingInterpolator(EasingTable.ACCELERATE);
+    public static final MovingInterpolator DECELERATE = new MovingInterpolator(EasingTable.DECELERATE);
+
+    private final EasingTable table;
+
+    public MovingInterpolator(EasingTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Samples an interpolator into a lookup table.
+     *
+     * @param interpolator interpolator, only called here.
+     * @return table interpolator, the same one if it already is.
+     */
+    public static MovingInterpolator of(final Interpolator interpolator) {
+        if (interpolator instanceof MovingInterpolator)
+            return (MovingInterpolator) interpolator;
+        return new MovingInterpolator(new EasingTable(new EasingTable.Curve() {
+            @Override
+            public float get(float input) {
+                return interpolator.getInterpolation(input);
+            }
+        }));
+    }
+
+    public EasingTable getTable() {
+        return table;
+    }
+
+    @Override
+    public float getInterpolation(float input) {
+        return table.get(input);
+    }
+
+}
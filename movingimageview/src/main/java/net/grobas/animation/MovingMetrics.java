@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.animation;
+
+/**
+ * Animation metrics of a <code>MovingViewAnimator</code>. Update times are kept on a fixed
+ * histogram, so recording never allocates.
+ * Instances returned by {@link MovingViewAnimator#getMetrics()} are snapshots.
+ */
+public final class MovingMetrics {
+
+    //histogram of 50us buckets up to 50ms, last one holds the rest
+    private static final long BUCKET_NANOS = 50000L;
+    private static final int BUCKETS = 1001;
+    private static final long NANOS_PER_MS = 1000000L;
+
+    private long frameNanos = 1000000000L / 60;
+
+    private long frames;
+    private long timedFrames;
+    private long jankyFrames;
+    private long droppedFrames;
+    private long updateNanos;
+    private long maxUpdateNanos;
+    private final int[] histogram;
+    private int rebuilds;
+    private int restarts;
+    private long restartNanos;
+    private long maxRestartNanos;
+
+    //recording helpers
+    private long lastFrameStart;
+    private long restartRequest;
+
+    MovingMetrics() {
+        histogram = new int[BUCKETS];
+    }
+
+    private MovingMetrics(MovingMetrics metrics) {
+        frameNanos = metrics.frameNanos;
+        frames = metrics.frames;
+        timedFrames = metrics.timedFrames;
+        jankyFrames = metrics.jankyFrames;
+        droppedFrames = metrics.droppedFrames;
+        updateNanos = metrics.updateNanos;
+        maxUpdateNanos = metrics.maxUpdateNanos;
+        histogram = metrics.histogram.clone();
+        rebuilds = metrics.rebuilds;
+        restarts = metrics.restarts;
+        restartNanos = metrics.restartNanos;
+        maxRestartNanos = metrics.maxRestartNanos;
+    }
+
+    MovingMetrics snapshot() {
+        return new MovingMetrics(this);
+    }
+
+    void setFrameRate(float frameRate) {
+        if (frameRate > 0)
+            frameNanos = (long) (1000000000L / frameRate);
+    }
+
+    /**
+     * Records an animation frame.
+     *
+     * @param start update start, <code>System.nanoTime()</code> based.
+     * @param end   update end.
+     */
+    void onFrame(long start, long end) {
+        onFrame(start);
+        timedFrames++;
+        long update = end - start;
+        updateNanos += update;
+        maxUpdateNanos = Math.max(maxUpdateNanos, update);
+        histogram[(int) Math.min(update / BUCKET_NANOS, BUCKETS - 1)]++;
+    }
+
+    /**
+     * Records an animation frame without update time.
+     *
+     * @param start frame time, <code>System.nanoTime()</code> based.
+     */
+    void onFrame(long start) {
+        frames++;
+        if (lastFrameStart != 0) {
+            long interval = start - lastFrameStart;
+            //a frame is janky when it comes 1.5 frames late
+            if (interval * 2 > frameNanos * 3) {
+                jankyFrames++;
+                droppedFrames += (interval / frameNanos) - 1;
+            }
+        }
+        lastFrameStart = start;
+    }
+
+    /**
+     * Frames are not expected until next start or resume.
+     */
+    void onIdle() {
+        lastFrameStart = 0;
+    }
+
+    void onRebuild() {
+        rebuilds++;
+    }
+
+    void onRestartRequested(long time) {
+        restartRequest = time;
+    }
+
+    void onRestart(long time) {
+        if (restartRequest == 0)
+            return;
+
+        long latency = time - restartRequest;
+        restarts++;
+        restartNanos += latency;
+        maxRestartNanos = Math.max(maxRestartNanos, latency);
+        restartRequest = 0;
+        onIdle();
+    }
+
+    void reset() {
+        frames = 0;
+        timedFrames = 0;
+        jankyFrames = 0;
+        droppedFrames = 0;
+        updateNanos = 0;
+        maxUpdateNanos = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            histogram[i] = 0;
+        rebuilds = 0;
+        restarts = 0;
+        restartNanos = 0;
+        maxRestartNanos = 0;
+        lastFrameStart = 0;
+        restartRequest = 0;
+    }
+
+    /**
+     * Frames driven by the animator. Path engine frames include update time,
+     * AnimatorSet frames only count for frame rate and jank.
+     *
+     * @return frames count.
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Frames that came at least 1.5 frame times after the previous one.
+     *
+     * @return janky frames count.
+     */
+    public long getJankyFrames() {
+        return jankyFrames;
+    }
+
+    /**
+     * Frames skipped between janky frames.
+     *
+     * @return dropped frames count.
+     */
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public float getAverageUpdateTime() {
+        return (timedFrames == 0) ? 0 : (float) updateNanos / timedFrames / NANOS_PER_MS;
+    }
+
+    public float getMaxUpdateTime() {
+        return (float) maxUpdateNanos / NANOS_PER_MS;
+    }
+
+    /**
+     * Per frame update time percentile, with 0.05ms precision.
+     *
+     * @param percentile percentile, from 0 to 100.
+     * @return update time in ms.
+     */
+    public float getUpdateTimePercentile(float percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            total += histogram[i];
+        if (total == 0)
+            return 0;
+
+        long target = (long) Math.ceil(total * percentile / 100f);
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += histogram[i];
+            if (count >= target)
+                return (float) ((i + 1) * BUCKET_NANOS) / NANOS_PER_MS;
+        }
+        return getMaxUpdateTime();
+    }
+
+    /**
+     * Times the animator was rebuilt, on movement, offsets or custom movement changes.
+     *
+     * @return rebuilds count.
+     */
+    public int getRebuilds() {
+        return rebuilds;
+    }
+
+    /**
+     * Loop restarts posted by the <code>AnimatorSet</code> backend.
+     *
+     * @return restarts count.
+     */
+    public int getRestarts() {
+        return restarts;
+    }
+
+    public float getAverageRestartLatency() {
+        return (restarts == 0) ? 0 : (float) restartNanos / restarts / NANOS_PER_MS;
+    }
+
+    public float getMaxRestartLatency() {
+        return (float) maxRestartNanos / NANOS_PER_MS;
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.animation;
+
+/**
+ * Decides how much animation quality a <code>MovingViewAnimator</code> can afford.
+ * Consulted on loop repeats, every few seconds of frames and on focus changes.
+ */
+public interface MovingQualityPolicy {
+
+    //quality levels, from best to cheapest
+    int QUALITY_FULL = 0;
+    //half the update rate
+    int QUALITY_REDUCED = 1;
+    //quarter of the update rate and single axis movement
+    int QUALITY_LOW = 2;
+    //paused until conditions change
+    int QUALITY_PAUSED = 3;
+
+    //thermal status, same values as PowerManager
+    int THERMAL_STATUS_NONE = 0;
+    int THERMAL_STATUS_LIGHT = 1;
+    int THERMAL_STATUS_MODERATE = 2;
+    int THERMAL_STATUS_SEVERE = 3;
+    int THERMAL_STATUS_CRITICAL = 4;
+
+    /**
+     * @param powerSave     true if the device is on power save mode.
+     * @param thermalStatus device thermal status.
+     * @param jankRate      fraction of janky frames since last call, from 0 to 1.
+     * @param focused       true if the view window has focus.
+     * @return quality level.
+     */
+    int getQuality(boolean powerSave, int thermalStatus, float jankRate, boolean focused);
+
+    /**
+     * Source of the device conditions, replace it to simulate them.
+     */
+    interface DeviceState {
+
+        boolean isPowerSaveMode();
+
+        int getThermalStatus();
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.animation;
+
+import android.annotation.TargetApi;
+import android.view.Choreographer;
+
+/**
+ * Shared animation clock. A single <code>Choreographer</code> frame callback advances
+ * every registered <code>MovingViewAnimator</code> in one pass. Animators can ask for
+ * their next frame later than the next vsync, the clock sleeps until the first one is due.
+ * Only for UI thread use.
+ */
+@TargetApi(16)
+final class MovingTicker implements Choreographer.FrameCallback {
+
+    private static final long NANOS_PER_MS = 1000000L;
+    private static final long PENDING = Long.MIN_VALUE;
+    //frame time jitter allowed on due frames
+    private static final long DUE_SLACK_NANOS = 2 * NANOS_PER_MS;
+
+    private static MovingTicker sInstance;
+
+    //per animator state
+    private MovingViewAnimator[] animators;
+    private long[] startTimes;
+    private long[] playTimes;
+    private long[] dueTimes;
+    private int count;
+
+    private boolean scheduled;
+    private boolean delayed;
+    private boolean inFrame;
+    private boolean dirty;
+
+    static MovingTicker getInstance() {
+        if (sInstance == null)
+            sInstance = new MovingTicker();
+        return sInstance;
+    }
+
+    private MovingTicker() {
+        animators = new MovingViewAnimator[8];
+        startTimes = new long[8];
+        playTimes = new long[8];
+        dueTimes = new long[8];
+    }
+
+    /**
+     * Adds an animator to the clock.
+     *
+     * @param animator animator to drive.
+     * @param playTime initial play time in ms, animator starts from there on next frame.
+     */
+    void register(MovingViewAnimator animator, long playTime) {
+        int index = indexOf(animator);
+        if (index < 0) {
+            ensureCapacity(count + 1);
+            index = count++;
+            animators[index] = animator;
+        }
+        startTimes[index] = PENDING;
+        playTimes[index] = playTime;
+        dueTimes[index] = 0;
+        schedule(0);
+    }
+
+    /**
+     * Removes an animator from the clock.
+     *
+     * @param animator animator to remove.
+     * @return current play time in ms, or -1 if it wasn't registered.
+     */
+    long unregister(MovingViewAnimator animator) {
+        int index = indexOf(animator);
+        if (index < 0)
+            return -1;
+
+        long playTime = getPlayTime(index, System.nanoTime());
+        animators[index] = null;
+        dirty = true;
+        if (!inFrame)
+            compact();
+        return playTime;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        scheduled = false;
+        inFrame = true;
+        //animators registered on this pass will start on next frame
+        int size = count;
+        for (int i = 0; i < size; i++) {
+            MovingViewAnimator animator = animators[i];
+            if (animator == null)
+                continue;
+
+            if (startTimes[i] == PENDING)
+                startTimes[i] = frameTimeNanos - playTimes[i] * NANOS_PER_MS;
+            else if (frameTimeNanos < dueTimes[i])
+                continue;
+
+            playTimes[i] = getPlayTime(i, frameTimeNanos);
+            if (!animator.onTickerFrame(playTimes[i])) {
+                if (animators[i] == animator) {
+                    animators[i] = null;
+                    dirty = true;
+                }
+            } else if (startTimes[i] != PENDING) {
+                dueTimes[i] = startTimes[i] + animator.getNextFrameTime(playTimes[i]) * NANOS_PER_MS
+                        - DUE_SLACK_NANOS;
+            }
+        }
+        inFrame = false;
+
+        if (dirty)
+            compact();
+        if (count > 0)
+            schedule(getNextDueTime());
+    }
+
+    /**
+     * @return earliest due time, in frame time nanos.
+     */
+    private long getNextDueTime() {
+        long due = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            if (animators[i] != null)
+                due = Math.min(due, (startTimes[i] == PENDING) ? 0 : dueTimes[i]);
+        }
+        return due;
+    }
+
+    private long getPlayTime(int index, long timeNanos) {
+        if (startTimes[index] == PENDING)
+            return playTimes[index];
+        return Math.max(0, (timeNanos - startTimes[index]) / NANOS_PER_MS);
+    }
+
+    /**
+     * Posts the frame callback for the first frame after a due time.
+     *
+     * @param dueTime due time in frame time nanos, 0 for next frame.
+     */
+    private void schedule(long dueTime) {
+        long delay = (dueTime - System.nanoTime()) / NANOS_PER_MS;
+        if (scheduled) {
+            //a sleeping clock wakes up earlier for new work
+            if (!delayed || delay > 0)
+                return;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
+        scheduled = true;
+        delayed = delay > 0;
+        if (delayed)
+            Choreographer.getInstance().postFrameCallbackDelayed(this, delay);
+        else
+            Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private int indexOf(MovingViewAnimator animator) {
+        for (int i = 0; i < count; i++) {
+            if (animators[i] == animator)
+                return i;
+        }
+        return -1;
+    }
+
+    private void compact() {
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (animators[i] != null) {
+                animators[size] = animators[i];
+                startTimes[size] = startTimes[i];
+                playTimes[size] = playTimes[i];
+                dueTimes[size] = dueTimes[i];
+                size++;
+            }
+        }
+        for (int i = size; i < count; i++)
+            animators[i] = null;
+        count = size;
+        dirty = false;
+
+        if (count == 0 && scheduled) {
+            scheduled = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= animators.length)
+            return;
+
+        int capacity = Math.max(size, animators.length * 2);
+        MovingViewAnimator[] newAnimators = new MovingViewAnimator[capacity];
+        long[] newStartTimes = new long[capacity];
+        long[] newPlayTimes = new long[capacity];
+        long[] newDueTimes = new long[capacity];
+        System.arraycopy(animators, 0, newAnimators, 0, count);
+        System.arraycopy(startTimes, 0, newStartTimes, 0, count);
+        System.arraycopy(playTimes, 0, newPlayTimes, 0, count);
+        System.arraycopy(dueTimes, 0, newDueTimes, 0, count);
+        animators = newAnimators;
+        startTimes = newStartTimes;
+        playTimes = newPlayTimes;
+        dueTimes = newDueTimes;
+    }
+
+}
@@ -21,11 +21,16 @@ import android.animation.AnimatorListenerAdapter;
 import android.animation.AnimatorSet;
 import android.animation.ObjectAnimator;
 import android.animation.PropertyValuesHolder;
+import android.animation.ValueAnimator;
 import android.annotation.TargetApi;
 import android.os.Build;
 import android.view.View;
-import android.view.animation.AccelerateDecelerateInterpolator;
 import android.view.animation.Interpolator;
+import android.view.animation.LinearInterpolator;
+
+import net.grobas.geometry.EasingTable;
+import net.grobas.geometry.MovementPath;
+import net.grobas.geometry.MovingPath;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -39,54 +44,172 @@ import java.util.List;
 public class MovingViewAnimator {
 
     //movement type vars
-    public static final int HORIZONTAL_MOVE = 1;
-    public static final int VERTICAL_MOVE = 2;
-    public static final int DIAGONAL_MOVE = 3;
-    public static final int AUTO_MOVE = 0;
-    public static final int NONE_MOVE = -1;
+    public static final int HORIZONTAL_MOVE = MovingPath.HORIZONTAL;
+    public static final int VERTICAL_MOVE = MovingPath.VERTICAL;
+    public static final int DIAGONAL_MOVE = MovingPath.DIAGONAL;
+    public static final int AUTO_MOVE = MovingPath.AUTO;
+    public static final int NONE_MOVE = MovingPath.NONE;
+    //zooms in and out, needs a position listener applying the zoom
+    public static final int ZOOM_MOVE = MovingPath.ZOOM;
+
+    //path engine eases each segment itself, its timeline is linear
+    private static final Interpolator LINEAR = new LinearInterpolator();
+    //adaptive frames won't sleep longer than this
+    private static final int MAX_SKIPPED_FRAMES = 30;
+    //frames between quality checks, about 2 seconds
+    private static final int QUALITY_CHECK_FRAMES = 120;
+    //frame intervals longer than this many expected ones are janky
+    private static final float JANK_FACTOR = 1.5f;
 
     //Animators and view vars
-    private AnimatorSet mAnimatorSet;
+    private Animator mAnimatorSet;
     private Animator.AnimatorListener animatorListener;
+    private OnPositionChangeListener positionListener;
+    private OnCueListener cueListener;
+    private OnZoomChangeListener zoomListener;
     private View mView;
 
     //helper vars
     private boolean isRunning;
+    //internal rebuilds don't reach the listener
+    private boolean rebuilding;
+    private long pausedPlayTime = -1;
+    private long seekPlayTime = -1;
+    private long tickerPlayTime = -1;
+    private long tickerLoop;
     private int currentLoop;
     private boolean infiniteRepetition = true;
-    private ArrayList<Float> pathDistances;
+    private MovingPath mPath;
+    //x, y and zoom
+    private final float[] mPosition = new float[3];
+    private final float[] nextPosition = new float[3];
+    private float zoom = 1f;
+    private float cueFraction;
+    private float lastFraction;
+    private int currentSegment;
+    private List<Animator> segmentAnimators;
 
     //user vars
     private int loopCount = -1;
     private int movementType;
+    private MovementPath movementPath;
     private float offsetWidth, offsetHeight;
     private int mSpeed = 50;
     private long mDelay = 0;
     private Interpolator mInterpolator;
+    private Interpolator[] segmentInterpolators;
+    private boolean pathEngine;
+    private boolean sharedTicker;
+    private boolean adaptiveFrames;
+    private float frameStep = 1f;
+    private float frameInterval = 1000f / 60f;
+    private MovingMetrics metrics;
+
+    //quality policy vars
+    private MovingQualityPolicy qualityPolicy;
+    private MovingQualityPolicy.DeviceState deviceState;
+    private int quality = MovingQualityPolicy.QUALITY_FULL;
+    private int frameDivisor = 1;
+    private int dividedFrames;
+    private int qualityFrames, jankyFrames;
+    private long lastFrameNanos;
+    private boolean qualityPaused;
+    private boolean pauseRequested;
+
+    //driven mode vars
+    private boolean driven;
+    private float progress;
+    private boolean progressPending;
 
     private Animator.AnimatorListener repeatAnimatorListener = new AnimatorListenerAdapter() {
         @Override
-        public void onAnimationEnd(final Animator animation) {
+        public void onAnimationRepeat(Animator animation) {
+            //Only path engine repeats natively
+            if (!infiniteRepetition)
+                currentLoop--;
+            requestQualityUpdate();
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
             //super.onAnimationEnd(animation);
+            if (isNativeRepeat()) {
+                if (!infiniteRepetition)
+                    currentLoop--;
+                return;
+            }
+
+            if (metrics != null)
+                metrics.onRestartRequested(System.nanoTime());
+
             //View always in UI threat!
-            mView.post((new Runnable() {
-                public void run() {
-                    if (isRunning) {
-                        if (infiniteRepetition) {
-                            mAnimatorSet.start();
-                            if (animatorListener != null)
-                                animatorListener.onAnimationRepeat(animation);
-                        } else {
-                            currentLoop--;
-                            if (currentLoop > 0) {
-                                mAnimatorSet.start();
-                                if (animatorListener != null)
-                                    animatorListener.onAnimationRepeat(animation);
-                            }
-                        }
+            mView.removeCallbacks(restartRunnable);
+            mView.post(restartRunnable);
+        }
+    };
+
+    //reused on every AnimatorSet loop, no allocations per loop
+    private final Runnable restartRunnable = new Runnable() {
+        public void run() {
+            if (metrics != null)
+                metrics.onRestart(System.nanoTime());
+            if (isRunning) {
+                requestQualityUpdate();
+                if (infiniteRepetition) {
+                    mAnimatorSet.start();
+                    if (animatorListener != null)
+                        animatorListener.onAnimationRepeat(mAnimatorSet);
+                } else {
+                    currentLoop--;
+                    if (currentLoop > 0) {
+                        mAnimatorSet.start();
+                        if (animatorListener != null)
+                            animatorListener.onAnimationRepeat(mAnimatorSet);
                     }
                 }
-            }));
+            }
+        }
+    };
+
+    private Animator.AnimatorListener segmentListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationStart(Animator animation) {
+            if (segmentAnimators != null)
+                currentSegment = Math.max(segmentAnimators.indexOf(animation), 0);
+        }
+    };
+
+    private ValueAnimator.AnimatorUpdateListener metricsUpdateListener = new ValueAnimator.AnimatorUpdateListener() {
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            if (metrics != null)
+                metrics.onFrame(System.nanoTime());
+        }
+    };
+
+    private ValueAnimator.AnimatorUpdateListener pathUpdateListener = new ValueAnimator.AnimatorUpdateListener() {
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            float fraction = animation.getAnimatedFraction();
+            //lower quality skips frames, never the last one
+            if (frameDivisor > 1 && fraction < 1f && ++dividedFrames % frameDivisor != 0)
+                return;
+            applyFraction(fraction);
+        }
+    };
+
+    //applies the last progress once per frame
+    private final Runnable progressRunnable = new Runnable() {
+        public void run() {
+            progressPending = false;
+            if (driven)
+                applyFraction(progress);
+        }
+    };
+
+    private final Runnable qualityRunnable = new Runnable() {
+        public void run() {
+            updateQuality();
         }
     };
 
@@ -95,8 +218,8 @@ public class MovingViewAnimator {
         mView = imgView;
         isRunning = false;
         mAnimatorSet = new AnimatorSet();
-        pathDistances = new ArrayList<>();
-        mInterpolator = new AccelerateDecelerateInterpolator();
+        mPath = new MovingPath();
+        mInterpolator = MovingInterpolator.ACCELERATE_DECELERATE;
     }
 
     public MovingViewAnimator(View imgView, int type, float width, float height) {
@@ -108,43 +231,83 @@ public class MovingViewAnimator {
         setUpAnimator();
         updateListener();
         setUpValues();
+        //path changed, same progress goes elsewhere
+        if (driven)
+            requestProgressFrame();
     }
 
     /**
-     * Sets the animation travel types.
+     * Sets the animation travel types, or scales the custom movement to the offsets.
      */
     private void setUpAnimator() {
-        AnimatorSet animatorSet = new AnimatorSet();
-        pathDistances.clear();
-
-        switch (movementType) {
-            case HORIZONTAL_MOVE:
-                animatorSet.playSequentially(createHorizontalAnimator(0, offsetWidth),
-                        createHorizontalAnimator(offsetWidth, 0));
-                break;
-            case VERTICAL_MOVE:
-                animatorSet.playSequentially(createVerticalAnimator(0, offsetHeight),
-                        createVerticalAnimator(offsetHeight, 0));
-                break;
-            case DIAGONAL_MOVE:
-                animatorSet.playSequentially(createDiagonalAnimator(0, offsetWidth, 0, offsetHeight),
-                        createDiagonalAnimator(offsetWidth, 0, offsetHeight, 0));
-                break;
-            case AUTO_MOVE:
-                animatorSet.playSequentially(
-                        createVerticalAnimator(0, offsetHeight),
-                        createDiagonalAnimator(0, offsetWidth, offsetHeight, 0),
-                        createHorizontalAnimator(offsetWidth, 0),
-                        createDiagonalAnimator(0, offsetWidth, 0, offsetHeight),
-                        createHorizontalAnimator(offsetWidth, 0),
-                        createVerticalAnimator(offsetHeight, 0));
-        }
+        mPath.setZoomLength(getZoomLength());
+        if (movementPath != null)
+            mPath.set(movementPath, offsetWidth, offsetHeight);
+        else
+            mPath.set(getQualityMovement(), offsetWidth, offsetHeight);
+        replaceAnimator(createAnimator());
+    }
+
+    /**
+     * Low quality moves along the longest axis only.
+     *
+     * @return movement type for the current quality.
+     */
+    private int getQualityMovement() {
+        if (quality < MovingQualityPolicy.QUALITY_LOW || movementType == NONE_MOVE)
+            return movementType;
+        return (offsetWidth >= offsetHeight) ? HORIZONTAL_MOVE : VERTICAL_MOVE;
+    }
 
+    private void replaceAnimator(Animator animator) {
+        if (metrics != null)
+            metrics.onRebuild();
         if (mAnimatorSet != null) {
             mAnimatorSet.removeAllListeners();
-            stop();
+            stopSilently();
+        }
+        mAnimatorSet = animator;
+    }
+
+    /**
+     * Creates the animator for the current path. Path engine uses a single
+     * <code>ValueAnimator</code>, otherwise one <code>ObjectAnimator</code> per segment.
+     *
+     * @return path animator.
+     */
+    private Animator createAnimator() {
+        currentSegment = 0;
+        segmentAnimators = null;
+        if (!mPath.hasZoom())
+            setZoom(1f);
+        //object animators can't zoom
+        if (pathEngine || mPath.hasZoom()) {
+            ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
+            animator.addUpdateListener(pathUpdateListener);
+            return animator;
+        }
+
+        List<Animator> animators = new ArrayList<>(mPath.size());
+        for (int i = 0; i < mPath.size(); i++) {
+            switch (mPath.getType(i)) {
+                case HORIZONTAL_MOVE:
+                    animators.add(createObjectAnimation("scrollX", mPath.getStartX(i), mPath.getEndX(i)));
+                    break;
+                case VERTICAL_MOVE:
+                    animators.add(createObjectAnimation("scrollY", mPath.getStartY(i), mPath.getEndY(i)));
+                    break;
+                default:
+                    animators.add(createDiagonalAnimator(mPath.getStartX(i), mPath.getEndX(i),
+                            mPath.getStartY(i), mPath.getEndY(i)));
+            }
+            animators.get(i).addListener(segmentListener);
+            if (metrics != null)
+                ((ValueAnimator) animators.get(i)).addUpdateListener(metricsUpdateListener);
         }
-        mAnimatorSet = animatorSet;
+        segmentAnimators = animators;
+        AnimatorSet animatorSet = new AnimatorSet();
+        animatorSet.playSequentially(animators);
+        return animatorSet;
     }
 
     private void setUpValues() {
@@ -157,14 +320,14 @@ public class MovingViewAnimator {
 
     /**
      * <code>AnimatorSet</code> doesn't have a reverse mode...
-     * Tricky but works.
+     * Tricky but works. Path engine repeats inside its own timeline instead.
      */
     private void updateListener() {
         mAnimatorSet.addListener(repeatAnimatorListener);
     }
 
     /**
-     * Update animation base vars.
+     * Update animation base vars. A custom movement is kept and scaled to the new offsets.
      *
      * @param type new movement type.
      * @param w    new width offset.
@@ -178,55 +341,557 @@ public class MovingViewAnimator {
         init();
     }
 
+    /**
+     * Sets a movement type, drops the custom movement.
+     *
+     * @param type new movement type.
+     */
     public void setMovementType(int type) {
+        movementPath = null;
         updateValues(type, offsetWidth, offsetHeight);
     }
 
+    /**
+     * Moves along a custom movement instead of the movement type. It's scaled to the
+     * offsets of this animator, the same movement can be shared by many of them.
+     *
+     * @param path normalized movement, null to go back to the movement type.
+     */
+    public void setMovementPath(MovementPath path) {
+        boolean wasRunning = isRunning;
+        movementPath = path;
+        init();
+        if (wasRunning)
+            restart();
+    }
+
+    public MovementPath getMovementPath() {
+        return movementPath;
+    }
+
     public void setOffsets(float w, float h) {
         updateValues(movementType, w, h);
     }
 
     public void start() {
-        if (movementType != NONE_MOVE) {
+        //a pre-KitKat pause is over, isPaused() goes back to false
+        clearManualPause();
+        if (driven) {
+            requestProgressFrame();
+            return;
+        }
+        if (movementType != NONE_MOVE || mPath.hasZoom()) {
+            if (metrics != null)
+                metrics.onIdle();
+            mView.removeCallbacks(restartRunnable);
             isRunning = true;
+            pauseRequested = false;
+            lastFrameNanos = 0;
             if (!infiniteRepetition)
                 currentLoop = loopCount;
-            mAnimatorSet.start();
+            //a pre-KitKat resume lowers it to the remaining loops
+            updateRepeatCount();
+            if (seekPlayTime < 0)
+                lastFraction = 0;
+            if (isTicking()) {
+                if (adaptiveFrames)
+                    updateFrameInterval();
+                tickerPlayTime = -1;
+                tickerLoop = 0;
+                //a seek skips the start delay
+                long playTime = (seekPlayTime >= 0) ? mAnimatorSet.getStartDelay() + seekPlayTime : 0;
+                MovingTicker.getInstance().register(this, playTime);
+                if (animatorListener != null && !rebuilding)
+                    animatorListener.onAnimationStart(mAnimatorSet);
+            } else if (seekPlayTime >= 0) {
+                startAt(seekPlayTime);
+            } else {
+                mAnimatorSet.start();
+            }
+            seekPlayTime = -1;
+            if (qualityPaused)
+                pauseAnimator();
+        }
+    }
+
+    /**
+     * Starts the animator at a play time of the current loop, without start delay.
+     * Segments before the play time are ended, the set goes on with the next one.
+     */
+    private void startAt(long playTime) {
+        mAnimatorSet.setStartDelay(0);
+        //path engine counts the remaining loops only
+        if (isNativeRepeat() && !infiniteRepetition)
+            ((ValueAnimator) mAnimatorSet).setRepeatCount(Math.max(currentLoop - 1, 0));
+        mAnimatorSet.start();
+        if (segmentAnimators == null) {
+            ((ValueAnimator) mAnimatorSet).setCurrentPlayTime(playTime);
+        } else {
+            int last = segmentAnimators.size() - 1;
+            for (int i = 0; i <= last; i++) {
+                ValueAnimator segment = (ValueAnimator) segmentAnimators.get(i);
+                if (playTime < segment.getDuration() || i == last) {
+                    segment.setCurrentPlayTime(Math.min(playTime, segment.getDuration()));
+                    break;
+                }
+                playTime -= segment.getDuration();
+                segment.end();
+            }
+        }
+        mAnimatorSet.setStartDelay(mDelay);
+    }
+
+    /**
+     * Moves a started animator to a play time. A running path engine animator seeks
+     * in place, otherwise it starts over from there.
+     */
+    private void setCurrentPlayTime(long playTime) {
+        if (isNativeRepeat() && mAnimatorSet.isRunning()) {
+            ((ValueAnimator) mAnimatorSet).setCurrentPlayTime(playTime);
+            return;
+        }
+        silentCancel(mAnimatorSet);
+        restoreListeners();
+        startAt(playTime);
+    }
+
+    /**
+     * Moves to a play time of the current loop. Position is a function of the play time,
+     * nothing is replayed. It keeps running, paused or stopped state; a stopped animator
+     * starts from there on next start. Works on both animator backends, none is switched.
+     *
+     * @param playTime play time in ms, wraps around the loop duration.
+     */
+    @TargetApi(19)
+    public void seek(long playTime) {
+        long duration = Math.max(getDuration(), 1);
+        long time = Math.max(playTime, 0) % duration;
+
+        if (isTicking()) {
+            long tickerTime = mAnimatorSet.getStartDelay() + tickerLoop * duration + time;
+            if (tickerPlayTime >= 0)
+                tickerPlayTime = tickerTime;
+            else if (MovingTicker.getInstance().unregister(this) >= 0)
+                MovingTicker.getInstance().register(this, tickerTime);
+            else
+                seekPlayTime = time;
+        } else if (pausedPlayTime >= 0) {
+            pausedPlayTime = time;
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT && mAnimatorSet.isPaused()) {
+            //seeking a paused animator breaks its resume time, pause it again from here
+            mAnimatorSet.resume();
+            setCurrentPlayTime(time);
+            mAnimatorSet.pause();
+        } else if (mAnimatorSet.isStarted()) {
+            setCurrentPlayTime(time);
+        } else {
+            seekPlayTime = time;
         }
+
+        //a seek never triggers the cue
+        lastFraction = time / (float) duration;
+        applyFraction(lastFraction);
+    }
+
+    /**
+     * Play time on the current loop, without start delay.
+     *
+     * @return play time in ms.
+     */
+    public long getPlayTime() {
+        if (isNativeRepeat())
+            return (long) (lastFraction * mAnimatorSet.getDuration());
+        //cancelled by a pre-KitKat pause
+        if (pausedPlayTime >= 0)
+            return pausedPlayTime;
+        if (segmentAnimators == null || !mAnimatorSet.isStarted())
+            return 0;
+
+        long time = 0;
+        for (int i = 0; i < currentSegment && i < segmentAnimators.size(); i++)
+            time += segmentAnimators.get(i).getDuration();
+        if (currentSegment < segmentAnimators.size())
+            time += Math.max(((ValueAnimator) segmentAnimators.get(currentSegment)).getCurrentPlayTime(), 0);
+        return time;
+    }
+
+    /**
+     * Duration of one loop.
+     *
+     * @return loop duration in ms.
+     */
+    public long getDuration() {
+        if (isNativeRepeat())
+            return mAnimatorSet.getDuration();
+        return parseSpeed(mPath.getLength());
     }
 
     public void cancel() {
+        seekPlayTime = -1;
         if(isRunning) {
+            if (isTicking()) {
+                boolean active = stopTicker();
+                if (active && animatorListener != null) {
+                    animatorListener.onAnimationCancel(mAnimatorSet);
+                    animatorListener.onAnimationEnd(mAnimatorSet);
+                }
+                return;
+            }
+            clearManualPause();
             mAnimatorSet.removeListener(repeatAnimatorListener);
             mAnimatorSet.cancel();
         }
     }
 
-    @TargetApi(19)
+    /**
+     * Pauses the animation. Below KitKat the animator is cancelled,
+     * keeping its play time for resume.
+     */
     public void pause() {
-        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT)
+        pauseRequested = true;
+        pauseAnimator();
+    }
+
+    @TargetApi(19)
+    private void pauseAnimator() {
+        lastFrameNanos = 0;
+        if (metrics != null)
+            metrics.onIdle();
+        if (isTicking()) {
+            if (tickerPlayTime < 0)
+                tickerPlayTime = MovingTicker.getInstance().unregister(this);
             return;
+        }
 
-        if(mAnimatorSet.isStarted())
-            mAnimatorSet.pause();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            if(mAnimatorSet.isStarted())
+                mAnimatorSet.pause();
+            return;
+        }
+
+        if (mAnimatorSet.isStarted() && pausedPlayTime < 0) {
+            if (isNativeRepeat()) {
+                long duration = mAnimatorSet.getDuration();
+                long playTime = Math.max(((ValueAnimator) mAnimatorSet).getCurrentPlayTime(), 0);
+                pausedPlayTime = (duration > 0) ? playTime % duration : 0;
+            } else {
+                pausedPlayTime = getPlayTime();
+            }
+            silentCancel(mAnimatorSet);
+        }
     }
 
-    @TargetApi(19)
+    /**
+     * Cancels without listeners, it's not an end for them. Give them back with restoreListeners.
+     */
+    private void silentCancel(Animator animator) {
+        animator.removeListener(repeatAnimatorListener);
+        if (animatorListener != null)
+            animator.removeListener(animatorListener);
+        animator.cancel();
+    }
+
+    /**
+     * Resumes the animation, unless the quality policy keeps it paused.
+     */
     public void resume() {
-        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT)
+        pauseRequested = false;
+        if (!qualityPaused)
+            resumeAnimator();
+    }
+
+    @TargetApi(19)
+    private void resumeAnimator() {
+        if (isTicking()) {
+            if (tickerPlayTime >= 0) {
+                if (adaptiveFrames)
+                    updateFrameInterval();
+                MovingTicker.getInstance().register(this, tickerPlayTime);
+                tickerPlayTime = -1;
+            }
             return;
+        }
 
-        if(mAnimatorSet.isPaused())
-            mAnimatorSet.resume();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            if(mAnimatorSet.isPaused())
+                mAnimatorSet.resume();
+            return;
+        }
+
+        if (pausedPlayTime >= 0) {
+            startAt(pausedPlayTime);
+            pausedPlayTime = -1;
+            restoreListeners();
+        }
+    }
+
+    @TargetApi(19)
+    public boolean isPaused() {
+        if (isTicking())
+            return tickerPlayTime >= 0;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT)
+            return mAnimatorSet.isPaused();
+        return pausedPlayTime >= 0;
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    /**
+     * Drops a pre-KitKat pause, giving back the listeners removed on it.
+     */
+    private void clearManualPause() {
+        if (pausedPlayTime < 0)
+            return;
+
+        pausedPlayTime = -1;
+        restoreListeners();
+    }
+
+    private void restoreListeners() {
+        updateListener();
+        if (animatorListener != null) {
+            mAnimatorSet.removeListener(animatorListener);
+            mAnimatorSet.addListener(animatorListener);
+        }
     }
 
     public void stop() {
         isRunning = false;
+        pauseRequested = false;
+        seekPlayTime = -1;
+        if (isTicking()) {
+            if (stopTicker() && animatorListener != null && !rebuilding)
+                animatorListener.onAnimationEnd(mAnimatorSet);
+            return;
+        }
+        clearManualPause();
         mAnimatorSet.removeListener(repeatAnimatorListener);
         mAnimatorSet.end();
         mView.clearAnimation();
     }
 
+    /**
+     * Stops for an internal rebuild, the ticker registration goes away without callbacks.
+     */
+    private void stopSilently() {
+        rebuilding = true;
+        stop();
+        rebuilding = false;
+    }
+
+    /**
+     * Starts again after an internal rebuild, without callbacks on the shared ticker.
+     */
+    private void restart() {
+        rebuilding = true;
+        start();
+        rebuilding = false;
+    }
+
+    /**
+     * Shared ticker works with the path engine animator as its configuration,
+     * the animator itself is never started.
+     *
+     * @return true if the shared ticker drives this animator.
+     */
+    private boolean isTicking() {
+        return sharedTicker && isNativeRepeat();
+    }
+
+    /**
+     * Removes this animator from the shared ticker.
+     *
+     * @return true if it was active or paused.
+     */
+    private boolean stopTicker() {
+        boolean active = MovingTicker.getInstance().unregister(this) >= 0 || tickerPlayTime >= 0;
+        tickerPlayTime = -1;
+        return active;
+    }
+
+    /**
+     * Advances the animation, called by the shared ticker on every frame.
+     *
+     * @param playTime time since start in ms, including start delay.
+     * @return false when the animation has ended.
+     */
+    boolean onTickerFrame(long playTime) {
+        ValueAnimator animator = (ValueAnimator) mAnimatorSet;
+        long time = playTime - animator.getStartDelay();
+        if (time < 0)
+            return true;
+
+        long duration = Math.max(animator.getDuration(), 1);
+        long loop = time / duration;
+        int repeatCount = animator.getRepeatCount();
+        if (repeatCount != ValueAnimator.INFINITE && loop > repeatCount) {
+            applyFraction(1f);
+            repeatAnimatorListener.onAnimationEnd(animator);
+            if (animatorListener != null)
+                animatorListener.onAnimationEnd(animator);
+            return false;
+        }
+
+        while (tickerLoop < loop) {
+            tickerLoop++;
+            repeatAnimatorListener.onAnimationRepeat(animator);
+            if (animatorListener != null)
+                animatorListener.onAnimationRepeat(animator);
+        }
+        applyFraction((time - loop * duration) / (float) duration);
+        return true;
+    }
+
+    /**
+     * Moves the view to a fraction of the path.
+     *
+     * @param fraction linear path fraction.
+     */
+    private void applyFraction(float fraction) {
+        long start = (metrics != null) ? System.nanoTime() : 0;
+        currentSegment = evaluate(fraction, mPosition);
+        setZoom(mPosition[2]);
+        if (positionListener != null)
+            positionListener.onPositionChanged(mPosition[0], mPosition[1]);
+        else
+            mView.scrollTo((int) mPosition[0], (int) mPosition[1]);
+        if (metrics != null)
+            metrics.onFrame(start, System.nanoTime());
+        if (qualityPolicy != null && !driven)
+            trackFrame();
+
+        //once per loop, fraction goes back to 0 on repeat
+        boolean cue = lastFraction < cueFraction && fraction >= cueFraction;
+        lastFraction = fraction;
+        if (cue && isRunning && cueListener != null)
+            cueListener.onCue();
+    }
+
+    private void setZoom(float value) {
+        if (zoom == value)
+            return;
+
+        zoom = value;
+        if (zoomListener != null)
+            zoomListener.onZoomChanged(zoom);
+    }
+
+    /**
+     * Path position and zoom at a fraction, segment easing applied.
+     *
+     * @return segment index.
+     */
+    private int evaluate(float fraction, float[] out) {
+        int index = mPath.getSegment(fraction);
+        float segmentFraction = mPath.getSegmentFraction(index, fraction);
+        EasingTable easing = mPath.getEasing(index);
+        if (easing != null) {
+            segmentFraction = easing.get(segmentFraction);
+        } else {
+            Interpolator interpolator = getSegmentInterpolator(index);
+            if (interpolator != null)
+                segmentFraction = interpolator.getInterpolation(segmentFraction);
+        }
+        mPath.getPoint(index, segmentFraction, out);
+        out[2] = mPath.hasZoom() ? mPath.getZoom(index, segmentFraction) : 1f;
+        return index;
+    }
+
+    /**
+     * Zoom segments count as long as the view corners travel, half its diagonal per zoom unit.
+     */
+    private float getZoomLength() {
+        float w = mView.getWidth();
+        float h = mView.getHeight();
+        return (float) Math.sqrt(w * w + h * h) / 2f;
+    }
+
+    /**
+     * Next ticker frame this animator needs. With adaptive frames it's the first frame
+     * where the position moves to another frame step, so frames that would draw the
+     * same pixels are skipped.
+     *
+     * @param playTime play time of the frame just drawn, including start delay.
+     * @return play time of the next needed frame.
+     */
+    long getNextFrameTime(long playTime) {
+        if (!adaptiveFrames)
+            return (frameDivisor > 1) ? playTime + (long) (frameDivisor * frameInterval) : playTime;
+
+        long delay = mAnimatorSet.getStartDelay();
+        long time = playTime - delay;
+        if (time < 0)
+            return delay;
+
+        long duration = Math.max(mAnimatorSet.getDuration(), 1);
+        long loop = time / duration;
+        for (int frame = frameDivisor; frame <= MAX_SKIPPED_FRAMES; frame += frameDivisor) {
+            long nextTime = time + (long) (frame * frameInterval);
+            //loop ends are always drawn
+            if (nextTime / duration != loop)
+                return delay + nextTime;
+
+            evaluate((nextTime - loop * duration) / (float) duration, nextPosition);
+            if (isStepChange(mPosition[0], nextPosition[0]) || isStepChange(mPosition[1], nextPosition[1])
+                    || isStepChange(mPosition[2] * mPath.getZoomLength(), nextPosition[2] * mPath.getZoomLength())) {
+                if (frame > frameDivisor) {
+                    //skipped frames are not janky ones
+                    lastFrameNanos = 0;
+                    if (metrics != null)
+                        metrics.onIdle();
+                }
+                return delay + nextTime;
+            }
+        }
+        lastFrameNanos = 0;
+        if (metrics != null)
+            metrics.onIdle();
+        return delay + time + (long) (MAX_SKIPPED_FRAMES * frameInterval);
+    }
+
+    /**
+     * Counts janky frames for the quality policy, checking it every few seconds.
+     */
+    private void trackFrame() {
+        long now = System.nanoTime();
+        if (lastFrameNanos > 0) {
+            qualityFrames++;
+            if (now - lastFrameNanos > frameInterval * frameDivisor * JANK_FACTOR * 1000000f)
+                jankyFrames++;
+        }
+        lastFrameNanos = now;
+        if (qualityFrames >= QUALITY_CHECK_FRAMES)
+            requestQualityUpdate();
+    }
+
+    /**
+     * Quality changes may rebuild the animator, never do it inside its own callbacks.
+     */
+    private void requestQualityUpdate() {
+        if (qualityPolicy == null)
+            return;
+
+        mView.removeCallbacks(qualityRunnable);
+        mView.post(qualityRunnable);
+    }
+
+    private boolean isStepChange(float from, float to) {
+        return Math.floor(from / frameStep) != Math.floor(to / frameStep);
+    }
+
+    /**
+     * Reads the refresh rate of the view display, adaptive frames work on its frame length.
+     */
+    @TargetApi(17)
+    private void updateFrameInterval() {
+        float refreshRate = 60f;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1 && mView.getDisplay() != null)
+            refreshRate = mView.getDisplay().getRefreshRate();
+        frameInterval = 1000f / ((refreshRate > 0) ? refreshRate : 60f);
+    }
+
     public void setRepetition(int repetition) {
         if (repetition < 0)
             infiniteRepetition = true;
@@ -235,6 +900,25 @@ public class MovingViewAnimator {
             currentLoop = loopCount;
             infiniteRepetition = false;
         }
+        updateRepeatCount();
+    }
+
+    private void updateRepeatCount() {
+        if (!isNativeRepeat())
+            return;
+
+        ((ValueAnimator) mAnimatorSet).setRepeatCount(infiniteRepetition ?
+                ValueAnimator.INFINITE : Math.max(loopCount - 1, 0));
+        ((ValueAnimator) mAnimatorSet).setRepeatMode(ValueAnimator.RESTART);
+    }
+
+    /**
+     * Path engine animator repeats by itself, no restart is posted between loops.
+     *
+     * @return true if repetitions are handled by the animator.
+     */
+    private boolean isNativeRepeat() {
+        return mAnimatorSet instanceof ValueAnimator;
     }
 
     public Builder addCustomMovement() {
@@ -242,6 +926,7 @@ public class MovingViewAnimator {
     }
 
     public void clearCustomMovement() {
+        movementPath = null;
         init();
         start();
     }
@@ -254,9 +939,268 @@ public class MovingViewAnimator {
         return (infiniteRepetition) ? -1 : currentLoop;
     }
 
+    /**
+     * Sets the interpolator for each path segment. Default one is a shared
+     * {@link MovingInterpolator#ACCELERATE_DECELERATE} lookup table.
+     *
+     * @param interpolator segment interpolator.
+     */
     public void setInterpolator(Interpolator interpolator) {
         mInterpolator = interpolator;
-        mAnimatorSet.setInterpolator(interpolator);
+        if (isNativeRepeat() || segmentAnimators == null) {
+            mAnimatorSet.setInterpolator(isNativeRepeat() ? LINEAR : interpolator);
+            return;
+        }
+        //a set interpolator would override the segment ones on start
+        for (int i = 0; i < segmentAnimators.size(); i++)
+            segmentAnimators.get(i).setInterpolator(getSegmentEasing(i));
+    }
+
+    public Interpolator getInterpolator() {
+        return mInterpolator;
+    }
+
+    /**
+     * Eases each leg of the path with its own interpolator, segment i uses
+     * <code>interpolators[i % length]</code>. Custom movement steps with their own easing
+     * keep it. Wrap them with {@link MovingInterpolator#of(Interpolator)} to share
+     * lookup tables between views.
+     *
+     * @param interpolators segment interpolators, null or empty for the
+     *                      {@link #setInterpolator(Interpolator)} one.
+     */
+    public void setSegmentInterpolators(Interpolator... interpolators) {
+        segmentInterpolators = (interpolators != null && interpolators.length > 0) ? interpolators.clone() : null;
+        setInterpolator(mInterpolator);
+    }
+
+    private Interpolator getSegmentInterpolator(int index) {
+        if (segmentInterpolators == null)
+            return mInterpolator;
+        return segmentInterpolators[index % segmentInterpolators.length];
+    }
+
+    /**
+     * Segment easing for its object animator.
+     */
+    private Interpolator getSegmentEasing(int index) {
+        EasingTable easing = mPath.getEasing(index);
+        return (easing != null) ? new MovingInterpolator(easing) : getSegmentInterpolator(index);
+    }
+
+    /**
+     * Enables the path engine. A single <code>ValueAnimator</code> walks the whole path
+     * and applies the scroll directly, instead of one reflective <code>ObjectAnimator</code>
+     * per segment. Repetitions run inside the same timeline, so start delay only
+     * applies to the first loop.
+     *
+     * @param enabled true to use the path engine.
+     */
+    public void setPathEngineEnabled(boolean enabled) {
+        if (pathEngine == enabled)
+            return;
+
+        boolean wasRunning = isRunning;
+        pathEngine = enabled;
+        replaceAnimator(createAnimator());
+        updateListener();
+        setUpValues();
+        if (wasRunning)
+            restart();
+    }
+
+    public boolean isPathEngineEnabled() {
+        return pathEngine;
+    }
+
+    /**
+     * Drives the animation from the shared <code>Choreographer</code> clock instead of
+     * its own animator. Many views are advanced in a single frame callback.
+     * Needs Jelly Bean, it also enables the path engine.
+     *
+     * @param enabled true to use the shared ticker.
+     */
+    public void setSharedTicker(boolean enabled) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN)
+            enabled = false;
+        if (sharedTicker == enabled)
+            return;
+
+        boolean wasRunning = isRunning;
+        stopSilently();
+        sharedTicker = enabled;
+        if (enabled)
+            setPathEngineEnabled(true);
+        if (wasRunning)
+            restart();
+    }
+
+    public boolean isSharedTicker() {
+        return sharedTicker;
+    }
+
+    /**
+     * Only asks the shared ticker for frames where the position moves at least to the next
+     * frame step, at the display refresh rate. Slow movements skip most frames.
+     * Needs Jelly Bean, it also enables the shared ticker.
+     *
+     * @param enabled true for adaptive frames.
+     */
+    public void setAdaptiveFrames(boolean enabled) {
+        adaptiveFrames = enabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+        if (adaptiveFrames) {
+            updateFrameInterval();
+            setSharedTicker(true);
+        }
+    }
+
+    public boolean isAdaptiveFrames() {
+        return adaptiveFrames;
+    }
+
+    /**
+     * Smallest position change that can be seen, 1 pixel for scroll.
+     *
+     * @param step frame step in pixels.
+     */
+    public void setFrameStep(float step) {
+        if (step > 0)
+            frameStep = step;
+    }
+
+    /**
+     * Driven mode moves along the path from {@link #setProgress(float)} calls instead of time,
+     * for example a scroll fraction. Nothing runs while progress doesn't change. Works with
+     * every movement type and custom movements. Stops the time animation.
+     *
+     * @param enabled true for driven mode.
+     */
+    public void setDriven(boolean enabled) {
+        if (driven == enabled)
+            return;
+
+        if (enabled)
+            stop();
+        else
+            mView.removeCallbacks(progressRunnable);
+        progressPending = false;
+        driven = enabled;
+        if (enabled)
+            requestProgressFrame();
+    }
+
+    public boolean isDriven() {
+        return driven;
+    }
+
+    /**
+     * Moves to a fraction of the path on driven mode. Several calls on the same frame
+     * end up on a single update, with the last progress.
+     *
+     * @param progress path fraction, from 0 to 1.
+     */
+    public void setProgress(float progress) {
+        this.progress = Math.max(0f, Math.min(1f, progress));
+        if (driven)
+            requestProgressFrame();
+    }
+
+    public float getProgress() {
+        return progress;
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void requestProgressFrame() {
+        if (progressPending)
+            return;
+
+        progressPending = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN)
+            mView.postOnAnimation(progressRunnable);
+        else
+            mView.post(progressRunnable);
+    }
+
+    /**
+     * Lets a policy lower the animation quality on power save mode, heat or dropped frames.
+     * Lower qualities halve or quarter the path engine update rate, move along a single axis
+     * or pause the animation; full quality comes back when conditions recover.
+     * Device conditions are read from the system.
+     *
+     * @param policy quality policy, null to always run at full quality.
+     */
+    public void setQualityPolicy(MovingQualityPolicy policy) {
+        setQualityPolicy(policy, (policy != null) ? new SystemDeviceState(mView.getContext()) : null);
+    }
+
+    /**
+     * Same as {@link #setQualityPolicy(MovingQualityPolicy)}, reading device conditions from a given source.
+     *
+     * @param policy quality policy, null to always run at full quality.
+     * @param state  device conditions source.
+     */
+    public void setQualityPolicy(MovingQualityPolicy policy, MovingQualityPolicy.DeviceState state) {
+        qualityPolicy = (state != null) ? policy : null;
+        deviceState = state;
+        mView.removeCallbacks(qualityRunnable);
+        updateFrameInterval();
+        updateQuality();
+    }
+
+    public MovingQualityPolicy getQualityPolicy() {
+        return qualityPolicy;
+    }
+
+    public int getQuality() {
+        return quality;
+    }
+
+    /**
+     * Asks the quality policy again, call it when device conditions change.
+     * It's also done on every loop, every few seconds of frames and on view focus changes.
+     */
+    public void updateQuality() {
+        float jankRate = (qualityFrames > 0) ? jankyFrames / (float) qualityFrames : 0;
+        qualityFrames = 0;
+        jankyFrames = 0;
+        setQuality((qualityPolicy != null) ? qualityPolicy.getQuality(deviceState.isPowerSaveMode(),
+                deviceState.getThermalStatus(), jankRate, mView.hasWindowFocus())
+                : MovingQualityPolicy.QUALITY_FULL);
+    }
+
+    private void setQuality(int newQuality) {
+        if (quality == newQuality)
+            return;
+
+        boolean low = quality >= MovingQualityPolicy.QUALITY_LOW;
+        quality = newQuality;
+        frameDivisor = (quality == MovingQualityPolicy.QUALITY_REDUCED) ? 2
+                : (quality == MovingQualityPolicy.QUALITY_LOW) ? 4 : 1;
+        lastFrameNanos = 0;
+
+        //custom movements are kept as they are
+        if (low != (quality >= MovingQualityPolicy.QUALITY_LOW) && movementPath == null) {
+            boolean wasRunning = isRunning;
+            boolean wasPaused = pauseRequested;
+            float fraction = isRunning ? getPlayTime() / (float) Math.max(getDuration(), 1) : 0;
+            init();
+            if (wasRunning) {
+                //same progress on the new path and the same animator backend
+                seek((long) (fraction * getDuration()));
+                restart();
+            }
+            if (wasPaused)
+                pause();
+        }
+
+        boolean paused = quality == MovingQualityPolicy.QUALITY_PAUSED;
+        if (paused == qualityPaused)
+            return;
+        qualityPaused = paused;
+        if (paused)
+            pauseAnimator();
+        else if (!pauseRequested)
+            resumeAnimator();
     }
 
     public void setStartDelay(long time) {
@@ -271,10 +1215,15 @@ public class MovingViewAnimator {
      */
     public void setSpeed(int speed) {
         mSpeed = speed;
-        List<Animator> listAnimator = mAnimatorSet.getChildAnimations();
+        if (!(mAnimatorSet instanceof AnimatorSet)) {
+            mAnimatorSet.setDuration(parseSpeed(mPath.getLength()));
+            return;
+        }
+
+        List<Animator> listAnimator = ((AnimatorSet) mAnimatorSet).getChildAnimations();
         for (int i = 0; i < listAnimator.size(); i++) {
             Animator a = listAnimator.get(i);
-            a.setDuration(parseSpeed(pathDistances.get(i)));
+            a.setDuration(parseSpeed(mPath.getDistance(i)));
         }
     }
 
@@ -293,23 +1242,88 @@ public class MovingViewAnimator {
         }
     }
 
-    private long parseSpeed(float distance) {
-        return (long) ((distance / (float) mSpeed) * 1000f);
+    /**
+     * Receives the float path position instead of scrolling the view.
+     * Only used by the path engine.
+     *
+     * @param listener position listener, null to scroll the view.
+     */
+    public void setOnPositionChangeListener(OnPositionChangeListener listener) {
+        positionListener = listener;
     }
 
-    private ObjectAnimator createHorizontalAnimator(float startValue, float endValue) {
-        pathDistances.add(Math.abs(startValue - endValue));
-        return createObjectAnimation("scrollX", startValue, endValue);
+    /**
+     * Gets called each loop when the path reaches a fraction. Only used by the path engine.
+     *
+     * @param fraction path fraction, from 0 to 1.
+     * @param listener cue listener, null to remove it.
+     */
+    public void setOnCueListener(float fraction, OnCueListener listener) {
+        cueFraction = fraction;
+        cueListener = listener;
     }
 
-    private ObjectAnimator createVerticalAnimator(float startValue, float endValue) {
-        pathDistances.add(Math.abs(startValue - endValue));
-        return createObjectAnimation("scrollY", startValue, endValue);
+    /**
+     * Records frame and rebuild metrics. Disabled by default, no work is done then.
+     * AnimatorSet backend only gets update listeners on animators built after enabling it.
+     *
+     * @param enabled true to record metrics.
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (enabled && metrics == null)
+            metrics = new MovingMetrics();
+        else if (!enabled)
+            metrics = null;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metrics != null;
+    }
+
+    /**
+     * Sets the display frame rate used to detect janky frames, 60 by default.
+     *
+     * @param frameRate display frame rate.
+     */
+    public void setMetricsFrameRate(float frameRate) {
+        if (metrics != null)
+            metrics.setFrameRate(frameRate);
+    }
+
+    /**
+     * Snapshot of current metrics.
+     *
+     * @return metrics snapshot, null if disabled.
+     */
+    public MovingMetrics getMetrics() {
+        return (metrics != null) ? metrics.snapshot() : null;
+    }
+
+    public void resetMetrics() {
+        if (metrics != null)
+            metrics.reset();
+    }
+
+    /**
+     * Direction of the active path segment.
+     *
+     * @param out array where x and y signs are written, 0 if there's no movement on that axis.
+     */
+    public void getDirection(float[] out) {
+        if (currentSegment >= mPath.size()) {
+            out[0] = 0;
+            out[1] = 0;
+            return;
+        }
+        out[0] = Math.signum(mPath.getEndX(currentSegment) - mPath.getStartX(currentSegment));
+        out[1] = Math.signum(mPath.getEndY(currentSegment) - mPath.getStartY(currentSegment));
+    }
+
+    private long parseSpeed(float distance) {
+        return MovingPath.getDuration(distance, mSpeed);
     }
 
     private ObjectAnimator createDiagonalAnimator(float startW, float endW, float startH, float endH) {
-        float diagonal = Pythagoras(Math.abs(startW - endW), Math.abs(startH - endH));
-        pathDistances.add(diagonal);
         PropertyValuesHolder pvhX = createPropertyValuesHolder("scrollX", startW, endW);
         PropertyValuesHolder pvhY = createPropertyValuesHolder("scrollY", startH, endH);
         return ObjectAnimator.ofPropertyValuesHolder(mView, pvhX, pvhY);
@@ -323,69 +1337,144 @@ public class MovingViewAnimator {
         return PropertyValuesHolder.ofInt(prop, (int) startValue, (int) endValue);
     }
 
-    private static float Pythagoras(float a, float b) {
-        return (float) Math.sqrt((a * a) + (b * b));
+    /**
+     * Current zoom over the layout scale, 1 unless the path zooms.
+     *
+     * @return zoom.
+     */
+    public float getZoom() {
+        return zoom;
+    }
+
+    /**
+     * Gets zoom changes of zoom paths, before the position of the same frame.
+     * Zoom paths always use the path engine.
+     *
+     * @param listener zoom listener, null to remove it.
+     */
+    public void setOnZoomChangeListener(OnZoomChangeListener listener) {
+        zoomListener = listener;
+    }
+
+    /**
+     * @return true if the current path zooms.
+     */
+    public boolean hasZoom() {
+        return mPath.hasZoom();
+    }
+
+    /**
+     * Listener for path zoom.
+     */
+    public interface OnZoomChangeListener {
+
+        /**
+         * @param zoom zoom over the layout scale, 1 is no zoom.
+         */
+        void onZoomChanged(float zoom);
+    }
+
+    /**
+     * Listener for a path engine cue.
+     */
+    public interface OnCueListener {
+
+        /**
+         * Path reached the cue fraction.
+         */
+        void onCue();
+    }
+
+    /**
+     * Listener for path engine positions.
+     */
+    public interface OnPositionChangeListener {
+
+        /**
+         * Called on every animation frame.
+         *
+         * @param x horizontal offset on path.
+         * @param y vertical offset on path.
+         */
+        void onPositionChanged(float x, float y);
     }
 
     /**
      * Class for create custom AUTO travel type regardless movementType var.
+     * Compiles a {@link MovementPath}, build one directly to share it between animators.
      */
     public class Builder {
 
-        private ArrayList<Animator> mList;
+        private MovementPath.Builder mList;
 
         private Builder() {
-            mList = new ArrayList<>();
-            pathDistances.clear();
+            mList = new MovementPath.Builder();
         }
 
         public Builder addHorizontalMoveToRight() {
-            mList.add(createHorizontalAnimator(0, offsetWidth));
+            mList.addHorizontalMoveToRight();
             return this;
         }
 
         public Builder addHorizontalMoveToLeft() {
-            mList.add(createHorizontalAnimator(offsetWidth, 0));
+            mList.addHorizontalMoveToLeft();
             return this;
         }
 
         public Builder addVerticalMoveToDown() {
-            mList.add(createVerticalAnimator(0, offsetHeight));
+            mList.addVerticalMoveToDown();
             return this;
         }
 
         public Builder addVerticalMoveToUp() {
-            mList.add(createVerticalAnimator(offsetHeight, 0));
+            mList.addVerticalMoveToUp();
             return this;
         }
 
         public Builder addDiagonalMoveToDownRight() {
-            mList.add(createDiagonalAnimator(0, offsetWidth, 0, offsetHeight));
+            mList.addDiagonalMoveToDownRight();
             return this;
         }
 
         public Builder addDiagonalMoveToDownLeft() {
-            mList.add(createDiagonalAnimator(offsetWidth, 0, 0, offsetHeight));
+            mList.addDiagonalMoveToDownLeft();
             return this;
         }
 
         public Builder addDiagonalMoveToUpRight() {
-            mList.add(createDiagonalAnimator(0, offsetWidth, offsetHeight, 0));
+            mList.addDiagonalMoveToUpRight();
             return this;
         }
 
         public Builder addDiagonalMoveToUpLeft() {
-            mList.add(createDiagonalAnimator(offsetWidth, 0, offsetHeight, 0));
+            mList.addDiagonalMoveToUpLeft();
+            return this;
+        }
+
+        public Builder addZoomIn(float zoom) {
+            mList.addZoomIn(zoom);
+            return this;
+        }
+
+        public Builder addZoomOut() {
+            mList.addZoomOut();
+            return this;
+        }
+
+        /**
+         * Eases the steps added from now on.
+         *
+         * @param interpolator step easing, sampled into a lookup table. Null for the
+         *                     animator interpolator.
+         */
+        public Builder setEasing(Interpolator interpolator) {
+            mList.setEasing((interpolator != null) ? MovingInterpolator.of(interpolator).getTable() : null);
             return this;
         }
 
         public void start() {
-            mAnimatorSet.removeAllListeners();
-            stop();
-            mAnimatorSet = new AnimatorSet();
-            mAnimatorSet.playSequentially(mList);
-            updateListener();
-            setUpValues();
+            movementPath = mList.build();
+            init();
             MovingViewAnimator.this.start();
         }
 
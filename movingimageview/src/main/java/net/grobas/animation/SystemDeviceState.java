@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.animation;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.os.Build;
+import android.os.PowerManager;
+
+import java.lang.reflect.Method;
+
+/**
+ * Device conditions read from <code>PowerManager</code>. Thermal status is read
+ * by reflection, it came after the SDK we compile against.
+ */
+final class SystemDeviceState implements MovingQualityPolicy.DeviceState {
+
+    //Build.VERSION_CODES.Q
+    private static final int THERMAL_API = 29;
+
+    private final PowerManager powerManager;
+    private Method thermalStatusMethod;
+    private boolean thermalStatusFailed;
+
+    SystemDeviceState(Context context) {
+        powerManager = (PowerManager) context.getApplicationContext().getSystemService(Context.POWER_SERVICE);
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    @Override
+    public boolean isPowerSaveMode() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP && powerManager != null
+                && powerManager.isPowerSaveMode();
+    }
+
+    @Override
+    public int getThermalStatus() {
+        if (Build.VERSION.SDK_INT < THERMAL_API || powerManager == null || thermalStatusFailed)
+            return MovingQualityPolicy.THERMAL_STATUS_NONE;
+
+        try {
+            if (thermalStatusMethod == null)
+                thermalStatusMethod = PowerManager.class.getMethod("getCurrentThermalStatus");
+            return (Integer) thermalStatusMethod.invoke(powerManager);
+        } catch (Exception e) {
+            thermalStatusFailed = true;
+            return MovingQualityPolicy.THERMAL_STATUS_NONE;
+        }
+    }
+
+}
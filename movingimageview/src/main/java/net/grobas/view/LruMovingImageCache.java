@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.view;
+
+import android.annotation.TargetApi;
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Build;
+import android.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Size bounded <code>MovingImageCache</code>. Decoded images are kept on a LRU cache,
+ * evicted ones go to a bitmap pool for <code>inBitmap</code> reuse once no view shows them.
+ * Register it once with <code>Context.registerComponentCallbacks</code> to trim it on memory pressure.
+ */
+public class LruMovingImageCache implements MovingImageCache, ComponentCallbacks2 {
+
+    private final LruCache<String, Bitmap> cache;
+    private final IdentityHashMap<Bitmap, Integer> references;
+    private final Set<Bitmap> cached;
+    private final ArrayList<Bitmap> pool;
+    private final int maxPoolSize;
+    private int poolSize;
+
+    /**
+     * @param maxSize     max cache size in bytes.
+     * @param maxPoolSize max pool size in bytes.
+     */
+    public LruMovingImageCache(int maxSize, int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+        references = new IdentityHashMap<>();
+        cached = Collections.newSetFromMap(new IdentityHashMap<Bitmap, Boolean>());
+        pool = new ArrayList<>();
+        cache = new LruCache<String, Bitmap>(maxSize) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return getSize(value);
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, String key, Bitmap oldValue, Bitmap newValue) {
+                if (oldValue == newValue)
+                    return;
+                cached.remove(oldValue);
+                if (!references.containsKey(oldValue))
+                    addToPool(oldValue);
+            }
+        };
+    }
+
+    /**
+     * Cache sized to an eighth of the max heap, pool to a sixteenth.
+     */
+    public LruMovingImageCache() {
+        this((int) (Runtime.getRuntime().maxMemory() / 8), (int) (Runtime.getRuntime().maxMemory() / 16));
+    }
+
+    @Override
+    public synchronized Bitmap get(String key) {
+        Bitmap bitmap = cache.get(key);
+        if (bitmap != null)
+            acquire(bitmap);
+        return bitmap;
+    }
+
+    @Override
+    public synchronized void put(String key, Bitmap bitmap) {
+        acquire(bitmap);
+        cached.add(bitmap);
+        cache.put(key, bitmap);
+    }
+
+    @Override
+    public synchronized void release(Bitmap bitmap) {
+        Integer count = references.get(bitmap);
+        if (count == null) {
+            //reusable bitmap a decode couldn't use
+            if (!cached.contains(bitmap) && !pool.contains(bitmap))
+                addToPool(bitmap);
+            return;
+        }
+
+        if (count > 1) {
+            references.put(bitmap, count - 1);
+            return;
+        }
+        references.remove(bitmap);
+        if (!cached.contains(bitmap))
+            addToPool(bitmap);
+    }
+
+    @Override
+    public synchronized Bitmap getReusableBitmap(BitmapFactory.Options options) {
+        Iterator<Bitmap> iterator = pool.iterator();
+        while (iterator.hasNext()) {
+            Bitmap bitmap = iterator.next();
+            if (bitmap.isRecycled()) {
+                iterator.remove();
+            } else if (canReuse(bitmap, options)) {
+                iterator.remove();
+                poolSize -= getSize(bitmap);
+                return bitmap;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized int getHitCount() {
+        return cache.hitCount();
+    }
+
+    @Override
+    public synchronized int getMissCount() {
+        return cache.missCount();
+    }
+
+    @Override
+    public synchronized int getEvictionCount() {
+        return cache.evictionCount();
+    }
+
+    /**
+     * Drops every cached and pooled image.
+     */
+    public synchronized void clear() {
+        cache.evictAll();
+        pool.clear();
+        poolSize = 0;
+    }
+
+    /**
+     * Drops pooled bitmaps on moderate memory pressure, everything on low memory.
+     * Shown images stay in use until their views release them.
+     *
+     * @param level trim level.
+     */
+    @Override
+    public synchronized void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            clear();
+        } else if (level >= TRIM_MEMORY_RUNNING_MODERATE && level != TRIM_MEMORY_UI_HIDDEN) {
+            pool.clear();
+            poolSize = 0;
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        clear();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+
+    private void acquire(Bitmap bitmap) {
+        Integer count = references.get(bitmap);
+        references.put(bitmap, (count == null) ? 1 : count + 1);
+    }
+
+    private void addToPool(Bitmap bitmap) {
+        if (bitmap.isRecycled() || !bitmap.isMutable())
+            return;
+
+        int size = getSize(bitmap);
+        if (size > maxPoolSize)
+            return;
+        while (poolSize + size > maxPoolSize && !pool.isEmpty())
+            poolSize -= getSize(pool.remove(0));
+        pool.add(bitmap);
+        poolSize += size;
+    }
+
+    /**
+     * Before KitKat <code>inBitmap</code> needs same size and no sampling.
+     */
+    @TargetApi(19)
+    private static boolean canReuse(Bitmap bitmap, BitmapFactory.Options options) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT) {
+            return bitmap.getWidth() == options.outWidth && bitmap.getHeight() == options.outHeight
+                    && options.inSampleSize <= 1 && bitmap.getConfig() == options.inPreferredConfig;
+        }
+
+        int sampleSize = Math.max(options.inSampleSize, 1);
+        int width = (options.outWidth + sampleSize - 1) / sampleSize;
+        int height = (options.outHeight + sampleSize - 1) / sampleSize;
+        return width * height * getBytesPerPixel(options.inPreferredConfig) <= bitmap.getAllocationByteCount();
+    }
+
+    //ARGB_4444 is deprecated, but it can still be asked for as decode config
+    @SuppressWarnings("deprecation")
+    private static int getBytesPerPixel(Bitmap.Config config) {
+        if (config == Bitmap.Config.ALPHA_8)
+            return 1;
+        if (config == Bitmap.Config.RGB_565 || config == Bitmap.Config.ARGB_4444)
+            return 2;
+        return 4;
+    }
+
+    @TargetApi(19)
+    private static int getSize(Bitmap bitmap) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT)
+            return bitmap.getAllocationByteCount();
+        return bitmap.getRowBytes() * bitmap.getHeight();
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.view;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+/**
+ * Decoded image cache and bitmap pool shared by <code>MovingImageView</code> instances.
+ * Used by downsampled loads, see {@link MovingImageView#setImageCache(MovingImageCache)}.
+ * Implementations are called from loader threads and main thread.
+ */
+public interface MovingImageCache {
+
+    /**
+     * Gets a decoded image. The bitmap is in use until it's released.
+     *
+     * @param key source and sample size key.
+     * @return cached bitmap or null.
+     */
+    Bitmap get(String key);
+
+    /**
+     * Adds a decoded image. The bitmap is in use until it's released.
+     *
+     * @param key    source and sample size key.
+     * @param bitmap decoded bitmap.
+     */
+    void put(String key, Bitmap bitmap);
+
+    /**
+     * Gives back a bitmap a view doesn't show anymore, or a reusable bitmap a decode
+     * couldn't use.
+     *
+     * @param bitmap released bitmap.
+     */
+    void release(Bitmap bitmap);
+
+    /**
+     * Gets a pooled bitmap that can be used as <code>inBitmap</code> for a decode.
+     *
+     * @param options decode options, with bounds and sample size already set.
+     * @return reusable bitmap or null.
+     */
+    Bitmap getReusableBitmap(BitmapFactory.Options options);
+
+    int getHitCount();
+
+    int getMissCount();
+
+    int getEvictionCount();
+
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.view;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
+import net.grobas.geometry.MovingLayout;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Decodes images off the main thread at the sample size they are going to be shown.
+ * Final scale is worked out from the image bounds with <code>MovingLayout</code>
+ * before any pixel is decoded.
+ */
+final class MovingImageLoader {
+
+    private static final int THREADS = 2;
+    //max preview size for tiled images
+    private static final int PREVIEW_SIZE = 1024;
+
+    private static Executor sExecutor;
+    private static Handler sHandler;
+
+    /**
+     * Result listener, always called on main thread.
+     */
+    interface Callback {
+
+        /**
+         * @param request  loaded request.
+         * @param drawable decoded drawable, null if it failed or was skipped.
+         */
+        void onImageLoaded(Request request, Drawable drawable);
+    }
+
+    /**
+     * Also told about the image size as soon as the bounds are decoded, before its pixels.
+     */
+    interface BoundsCallback extends Callback {
+
+        /**
+         * @param request request with the logical image size.
+         */
+        void onBoundsDecoded(Request request);
+    }
+
+    /**
+     * Load request, carries the canvas params at request time.
+     */
+    static final class Request {
+
+        final int resId;
+        final Uri uri;
+        final float canvasWidth, canvasHeight;
+        final float maxRelativeSize, minRelativeOffset;
+        final Bitmap.Config config;
+        final boolean tiled;
+        final MovingImageCache cache;
+        //previous sample size, decoding is skipped if it doesn't change
+        final int currentSampleSize;
+        //extra sampling under memory pressure, power of two
+        final int sampleFactor;
+
+        //filled on background thread
+        int sampleSize = 1;
+        float imageScale = 1f;
+        //logical image size
+        float imageWidth, imageHeight;
+        boolean skipped;
+        //bitmap acquired from the cache, view releases it
+        Bitmap bitmap;
+
+        Request(int resId, Uri uri, float canvasWidth, float canvasHeight, float maxRelativeSize,
+                float minRelativeOffset, Bitmap.Config config, boolean tiled, MovingImageCache cache,
+                int currentSampleSize, int sampleFactor) {
+            this.resId = resId;
+            this.uri = uri;
+            this.canvasWidth = canvasWidth;
+            this.canvasHeight = canvasHeight;
+            this.maxRelativeSize = maxRelativeSize;
+            this.minRelativeOffset = minRelativeOffset;
+            this.config = config;
+            this.tiled = tiled;
+            this.cache = cache;
+            this.currentSampleSize = currentSampleSize;
+            this.sampleFactor = sampleFactor;
+        }
+
+        boolean isSameSource(int resId, Uri uri) {
+            return (this.uri != null) ? this.uri.equals(uri) : (uri == null && this.resId == resId);
+        }
+    }
+
+    private MovingImageLoader() {
+    }
+
+    static void load(final Context context, final Request request, final Callback callback) {
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final Drawable drawable = decode(context, request, callback);
+                getHandler().post(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onImageLoaded(request, drawable);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Runs a task on the loader threads.
+     *
+     * @param task background task.
+     */
+    static void execute(Runnable task) {
+        getExecutor().execute(task);
+    }
+
+    /**
+     * Decodes bounds, computes the layout scale and decodes the sampled image.
+     *
+     * @return decoded drawable, null if skipped or failed.
+     */
+    private static Drawable decode(Context context, final Request request, final Callback callback) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        options.inScaled = false;
+        TypedValue value = new TypedValue();
+        try {
+            decodeStream(context, request, value, options);
+        } catch (IOException e) {
+            return null;
+        }
+        if (options.outWidth <= 0 || options.outHeight <= 0)
+            return null;
+
+        //logical size is the one ImageView would get, including resource density scale
+        float densityScale = getDensityScale(context, request, value);
+        float imageWidth = options.outWidth * densityScale;
+        float imageHeight = options.outHeight * densityScale;
+        request.imageWidth = imageWidth;
+        request.imageHeight = imageHeight;
+        if (callback instanceof BoundsCallback) {
+            getHandler().post(new Runnable() {
+                @Override
+                public void run() {
+                    ((BoundsCallback) callback).onBoundsDecoded(request);
+                }
+            });
+        }
+
+        MovingLayout layout = new MovingLayout();
+        float scale = layout.compute(imageWidth, imageHeight, request.canvasWidth, request.canvasHeight,
+                request.maxRelativeSize, request.minRelativeOffset) ? layout.getScale() : 1f;
+        request.sampleSize = MovingLayout.calculateSampleSize(options.outWidth, options.outHeight,
+                imageWidth * scale, imageHeight * scale) * request.sampleFactor;
+        if (request.sampleSize == request.currentSampleSize) {
+            request.skipped = true;
+            return null;
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = request.sampleSize;
+        options.inPreferredConfig = (request.config != null) ? request.config : getConfig(options.outMimeType);
+        if (request.tiled)
+            return decodeTiled(context, request, value, options, imageWidth);
+
+        String key = null;
+        Bitmap bitmap = null;
+        if (request.cache != null) {
+            key = getCacheKey(request, options.inPreferredConfig);
+            bitmap = request.cache.get(key);
+            if (bitmap != null) {
+                request.bitmap = bitmap;
+                request.imageScale = imageWidth / bitmap.getWidth();
+                return new BitmapDrawable(context.getResources(), bitmap);
+            }
+            options.inMutable = true;
+            options.inBitmap = request.cache.getReusableBitmap(options);
+        }
+
+        Bitmap pooled = options.inBitmap;
+        try {
+            bitmap = decodeStream(context, request, value, options);
+        } catch (IllegalArgumentException e) {
+            //pooled bitmap not valid for this image
+            options.inBitmap = null;
+            try {
+                bitmap = decodeStream(context, request, value, options);
+            } catch (IOException ioe) {
+                bitmap = null;
+            } catch (OutOfMemoryError oom) {
+                bitmap = null;
+            }
+        } catch (IOException e) {
+            bitmap = null;
+        } catch (OutOfMemoryError e) {
+            bitmap = null;
+        }
+        //a pooled bitmap the image didn't go into goes back to the pool
+        if (pooled != null && bitmap != pooled)
+            request.cache.release(pooled);
+        if (bitmap == null)
+            return null;
+
+        if (request.cache != null) {
+            request.cache.put(key, bitmap);
+            request.bitmap = bitmap;
+        }
+        request.imageScale = imageWidth / bitmap.getWidth();
+        return new BitmapDrawable(context.getResources(), bitmap);
+    }
+
+    /**
+     * Source and target scale key.
+     */
+    private static String getCacheKey(Request request, Bitmap.Config config) {
+        String source = (request.uri != null) ? request.uri.toString() : "res:" + request.resId;
+        return source + "@" + request.sampleSize + ":" + config;
+    }
+
+    /**
+     * Creates a region decoder and a small preview for tiled rendering.
+     *
+     * @return tiled drawable, null if failed.
+     */
+    private static Drawable decodeTiled(Context context, Request request, TypedValue value,
+                                        BitmapFactory.Options options, float imageWidth) {
+        BitmapRegionDecoder decoder = null;
+        Bitmap preview;
+        InputStream is = null;
+        try {
+            is = openStream(context, request, value);
+            decoder = BitmapRegionDecoder.newInstance(is, false);
+            int previewSample = 1;
+            while (Math.max(options.outWidth, options.outHeight) / previewSample > PREVIEW_SIZE)
+                previewSample *= 2;
+            options.inSampleSize = Math.max(previewSample, request.sampleSize);
+            preview = decodeStream(context, request, value, options);
+        } catch (IOException e) {
+            recycle(decoder);
+            return null;
+        } catch (OutOfMemoryError e) {
+            recycle(decoder);
+            return null;
+        } finally {
+            close(is);
+        }
+        if (decoder == null)
+            return null;
+
+        MovingTileDrawable drawable = new MovingTileDrawable(decoder, preview, request.sampleSize);
+        request.imageScale = imageWidth / drawable.getIntrinsicWidth();
+        return drawable;
+    }
+
+    /**
+     * Opens and decodes the source.
+     *
+     * @return decoded bitmap, null on bounds decoding.
+     * @throws IOException if the source can't be read.
+     */
+    private static Bitmap decodeStream(Context context, Request request, TypedValue value,
+                                       BitmapFactory.Options options) throws IOException {
+        InputStream is = null;
+        try {
+            is = openStream(context, request, value);
+            return BitmapFactory.decodeStream(is, null, options);
+        } finally {
+            close(is);
+        }
+    }
+
+    private static void recycle(BitmapRegionDecoder decoder) {
+        if (decoder != null)
+            decoder.recycle();
+    }
+
+    private static InputStream openStream(Context context, Request request, TypedValue value)
+            throws IOException {
+        InputStream is;
+        try {
+            if (request.uri != null)
+                is = context.getContentResolver().openInputStream(request.uri);
+            else
+                is = context.getResources().openRawResource(request.resId, value);
+        } catch (RuntimeException e) {
+            //missing resources
+            throw new IOException(e.getMessage());
+        }
+        if (is == null)
+            throw new IOException("Can't open image source");
+        return is;
+    }
+
+    private static void close(InputStream is) {
+        if (is != null) {
+            try {
+                is.close();
+            } catch (IOException e) {
+                //nothing to do
+            }
+        }
+    }
+
+    private static float getDensityScale(Context context, Request request, TypedValue value) {
+        if (request.uri != null || value.density == TypedValue.DENSITY_NONE)
+            return 1f;
+
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        int density = (value.density == TypedValue.DENSITY_DEFAULT) ?
+                DisplayMetrics.DENSITY_DEFAULT : value.density;
+        return (float) metrics.densityDpi / (float) density;
+    }
+
+    /**
+     * Jpeg has no alpha, half the memory with RGB_565.
+     */
+    private static Bitmap.Config getConfig(String mimeType) {
+        return "image/jpeg".equals(mimeType) ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+    }
+
+    private static synchronized Executor getExecutor() {
+        if (sExecutor == null) {
+            sExecutor = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable r) {
+                    Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                            r.run();
+                        }
+                    }, "MovingImageLoader");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return sExecutor;
+    }
+
+    private static synchronized Handler getHandler() {
+        if (sHandler == null)
+            sHandler = new Handler(Looper.getMainLooper());
+        return sHandler;
+    }
+
+}
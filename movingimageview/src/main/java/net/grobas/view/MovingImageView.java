@@ -16,16 +16,38 @@
 
 package net.grobas.view;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.content.res.Configuration;
 import android.content.res.TypedArray;
 import android.graphics.Bitmap;
+import android.graphics.Canvas;
 import android.graphics.Matrix;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
+import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
 import android.widget.ImageView;
 
 import net.grobas.animation.MovingViewAnimator;
+import net.grobas.geometry.MovingLayout;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Custom ImageView for moving images around the screen. Uses <code>MovingObjectAnimator</code>
@@ -33,11 +55,29 @@ import net.grobas.animation.MovingViewAnimator;
  */
 public class MovingImageView extends ImageView {
 
+    //memory tiers, each one samples images down twice as much as the previous
+    public static final int MEMORY_TIER_FULL = 0;
+    public static final int MEMORY_TIER_REDUCED = 1;
+    public static final int MEMORY_TIER_LOW = 2;
+
+    //smallest visible translation on sub-pixel panning
+    private static final float MIN_PAN_STEP = 1f / 16f;
+    //frame length used to estimate suppressed frames
+    private static final float FRAME_TIME = 1000f / 60f;
+    //Nougat, first one with clip bounds on the render node. Not on the compile sdk yet
+    private static final int TRANSLATION_PANNING_SDK = 24;
+    //time between memory checks before restoring full quality
+    private static final long MEMORY_RESTORE_DELAY = 10000;
+
     //control vars
     private float canvasWidth, canvasHeight;
     private float imageWidth, imageHeight;
-    private float offsetWidth, offsetHeight;
-    private int movementType;
+    private MovingLayout layout;
+    private float matrixImageScale;
+
+    //batched update vars, listener is created lazily because super constructor sets the image
+    private boolean updatePending;
+    private ViewTreeObserver.OnPreDrawListener updateListener;
 
     //user vars
     private float maxRelativeSize, minRelativeOffset;
@@ -45,10 +85,275 @@ public class MovingImageView extends ImageView {
     private long startDelay;
     private int mRepetitions;
     private boolean loadOnCreate;
+    private boolean subPixel;
+    private boolean translationPanning;
+    private boolean autoPause;
+    private boolean sharedTicker;
+    private boolean adaptiveFrames;
+    private boolean downsample;
+    private boolean tiled;
+    private boolean trimMemory;
+    private Bitmap.Config decodeConfig;
+
+    //downsample vars
+    private int sourceResId;
+    private Uri sourceUri;
+    private float imageScale = 1f;
+    private float sourceWidth, sourceHeight;
+    private int sampleSize;
+    private MovingImageLoader.Request pendingRequest;
+    private MovingImageCache imageCache;
+    private Bitmap cachedBitmap;
+    private MovingImageCache cachedBitmapOwner;
+    private final float[] direction = new float[2];
+    //bitmap drawable whose mip levels are being built
+    private Drawable mipSource;
+
+    //progressive loading vars, preview is shown once the image bounds are known
+    private Drawable previewDrawable;
+
+    //slideshow vars
+    private int[] slideResIds;
+    private Uri[] slideUris;
+    private int slideIndex;
+    private float slideCue = 0.9f;
+    private MovingImageLoader.Request nextRequest;
+    private Drawable nextDrawable;
+    private boolean slideDue;
+
+    //crossfade vars, outgoing image is drawn over the new one
+    private long crossfadeDuration = 1000;
+    private Drawable fadingDrawable;
+    private Bitmap fadingBitmap;
+    private MovingImageCache fadingBitmapOwner;
+    private final Matrix fadeMatrix = new Matrix();
+    private float fadeX, fadeY;
+    private int fadeAlpha;
+    private ValueAnimator fadeAnimator;
+
+    //parallax layers, drawn over the image
+    private final List<Layer> layers = new ArrayList<>();
+
+    //sub-pixel and translation panning vars
+    private Matrix baseMatrix;
+    private Matrix drawMatrix;
+    private float panX, panY;
+    private float zoom = 1f;
+    private boolean translating;
+    private final Rect panClipBounds = new Rect();
+
+    //auto pause vars
+    private boolean attached;
+    private boolean autoPaused;
+    private long autoPausedTime;
+    private long suppressedFrameEstimate;
+    private final Rect visibleRect = new Rect();
+
+    //memory pressure vars
+    private int memoryTier = MEMORY_TIER_FULL;
+    private boolean sourceStale;
+    private boolean memoryCallbacksRegistered;
+    //path engine enabled by the low memory tier, back to object animators on full tier
+    private boolean memoryPathEngine;
+    private ActivityManager.MemoryInfo memoryInfo;
+    private OnMemoryTierChangeListener memoryTierListener;
+
+    //saved state waiting for the animator
+    private long restoredPlayTime = -1;
+    private boolean restoredPaused;
 
     //Our custom animator
     private MovingViewAnimator mAnimator;
 
+    /**
+     * Translates the image matrix with float precision. Skips frames where the
+     * rendered position doesn't change.
+     */
+    private final MovingViewAnimator.OnPositionChangeListener subPixelListener =
+            new MovingViewAnimator.OnPositionChangeListener() {
+                @Override
+                public void onPositionChanged(float x, float y) {
+                    if (Math.abs(x - panX) < MIN_PAN_STEP && Math.abs(y - panY) < MIN_PAN_STEP)
+                        return;
+
+                    panX = x;
+                    panY = y;
+                    updateDrawMatrix();
+                }
+            };
+
+    /**
+     * Moves the whole view with translation and keeps the visible window in place with
+     * clip bounds. Both are render node properties on Nougat, frames don't record the view again.
+     */
+    private final MovingViewAnimator.OnPositionChangeListener translationListener =
+            new MovingViewAnimator.OnPositionChangeListener() {
+                @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+                @Override
+                public void onPositionChanged(float x, float y) {
+                    int left = Math.round(x);
+                    int top = Math.round(y);
+                    if (left == panX && top == panY)
+                        return;
+
+                    setTranslationX(getTranslationX() + panX - left);
+                    setTranslationY(getTranslationY() + panY - top);
+                    panX = left;
+                    panY = top;
+                    panClipBounds.set(left, top, left + getWidth(), top + getHeight());
+                    setClipBounds(panClipBounds);
+                    if (zoom != 1f)
+                        updateDrawMatrix();
+                }
+            };
+
+    /**
+     * Zoom paths scale the image matrix on the visible window center.
+     */
+    private final MovingViewAnimator.OnZoomChangeListener zoomListener =
+            new MovingViewAnimator.OnZoomChangeListener() {
+                @Override
+                public void onZoomChanged(float zoom) {
+                    MovingImageView.this.zoom = zoom;
+                    updateDrawMatrix();
+                    updateMipLevels();
+                }
+            };
+
+    private final ViewTreeObserver.OnScrollChangedListener scrollChangedListener =
+            new ViewTreeObserver.OnScrollChangedListener() {
+                @Override
+                public void onScrollChanged() {
+                    updateAutoPause();
+                }
+            };
+
+    private final ComponentCallbacks2 memoryCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            int tier = getMemoryTier(level);
+            if (tier > memoryTier)
+                setMemoryTier(tier);
+        }
+
+        @Override
+        public void onLowMemory() {
+            setMemoryTier(MEMORY_TIER_LOW);
+        }
+
+        @Override
+        public void onConfigurationChanged(Configuration newConfig) {
+        }
+    };
+
+    /**
+     * Goes back to full quality once the system is out of low memory.
+     */
+    private final Runnable memoryRestoreRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (isMemoryLow())
+                postDelayed(this, MEMORY_RESTORE_DELAY);
+            else
+                setMemoryTier(MEMORY_TIER_FULL);
+        }
+    };
+
+    private final MovingImageLoader.Callback imageLoaderCallback = new MovingImageLoader.Callback() {
+        @Override
+        public void onImageLoaded(MovingImageLoader.Request request, Drawable drawable) {
+            if (request != pendingRequest) {
+                releaseResult(request, drawable);
+                return;
+            }
+
+            pendingRequest = null;
+            if (request.skipped)
+                return;
+
+            if (drawable == null) {
+                //fallback to full decoding
+                int resId = sourceResId;
+                Uri uri = sourceUri;
+                clearSource();
+                if (uri != null)
+                    MovingImageView.super.setImageURI(uri);
+                else
+                    MovingImageView.super.setImageResource(resId);
+            } else {
+                releaseDrawable();
+                previewDrawable = null;
+                cachedBitmap = request.bitmap;
+                cachedBitmapOwner = request.cache;
+                sampleSize = request.sampleSize;
+                imageScale = request.imageScale;
+                sourceWidth = request.imageWidth;
+                sourceHeight = request.imageHeight;
+                MovingImageView.super.setImageDrawable(drawable);
+            }
+            updateAll();
+            if (nextRequest == null && getSlideCount() > 1 && memoryTier == MEMORY_TIER_FULL)
+                prefetchSlide();
+        }
+    };
+
+    /**
+     * Shows the preview at the logical image size, so the full image later swaps in
+     * with the same layout and the animation goes on.
+     */
+    private final MovingImageLoader.BoundsCallback previewLoaderCallback = new MovingImageLoader.BoundsCallback() {
+        @Override
+        public void onBoundsDecoded(MovingImageLoader.Request request) {
+            if (request != pendingRequest || previewDrawable == null)
+                return;
+
+            releaseDrawable();
+            sourceWidth = request.imageWidth;
+            sourceHeight = request.imageHeight;
+            imageScale = sourceWidth / previewDrawable.getIntrinsicWidth();
+            MovingImageView.super.setImageDrawable(previewDrawable);
+            updateAll();
+        }
+
+        @Override
+        public void onImageLoaded(MovingImageLoader.Request request, Drawable drawable) {
+            imageLoaderCallback.onImageLoaded(request, drawable);
+        }
+    };
+
+    private final MovingImageLoader.Callback slideLoaderCallback = new MovingImageLoader.Callback() {
+        @Override
+        public void onImageLoaded(MovingImageLoader.Request request, Drawable drawable) {
+            if (request != nextRequest) {
+                releaseResult(request, drawable);
+                return;
+            }
+
+            if (drawable == null) {
+                //skip it, next cue tries the following one
+                nextRequest = null;
+                slideIndex = (slideIndex + 1) % getSlideCount();
+                return;
+            }
+            nextDrawable = drawable;
+            if (slideDue)
+                showNextSlide();
+        }
+    };
+
+    private final MovingViewAnimator.OnCueListener slideCueListener = new MovingViewAnimator.OnCueListener() {
+        @Override
+        public void onCue() {
+            if (nextDrawable != null) {
+                showNextSlide();
+            } else {
+                slideDue = true;
+                if (nextRequest == null)
+                    prefetchSlide();
+            }
+        }
+    };
+
     public MovingImageView(Context context) {
         this(context, null);
     }
@@ -70,6 +375,14 @@ public class MovingImageView extends ImageView {
             mRepetitions = attributes.getInt(R.styleable.MovingImageView_miv_repetitions, -1);
             startDelay = attributes.getInt(R.styleable.MovingImageView_miv_start_delay, 0);
             loadOnCreate = attributes.getBoolean(R.styleable.MovingImageView_miv_load_on_create, true);
+            subPixel = attributes.getBoolean(R.styleable.MovingImageView_miv_sub_pixel, false);
+            autoPause = attributes.getBoolean(R.styleable.MovingImageView_miv_auto_pause, true);
+            sharedTicker = attributes.getBoolean(R.styleable.MovingImageView_miv_shared_ticker, false);
+            adaptiveFrames = attributes.getBoolean(R.styleable.MovingImageView_miv_adaptive_frames, false);
+            downsample = attributes.getBoolean(R.styleable.MovingImageView_miv_downsample, false);
+            tiled = attributes.getBoolean(R.styleable.MovingImageView_miv_tiled, false);
+            translationPanning = attributes.getBoolean(R.styleable.MovingImageView_miv_translation_panning, false);
+            trimMemory = attributes.getBoolean(R.styleable.MovingImageView_miv_trim_memory, true);
         } finally {
             attributes.recycle();
         }
@@ -81,6 +394,13 @@ public class MovingImageView extends ImageView {
         //mandatory
         super.setScaleType(ScaleType.MATRIX);
         mAnimator = new MovingViewAnimator(this);
+        layout = new MovingLayout();
+        baseMatrix = new Matrix();
+        drawMatrix = new Matrix();
+        updatePanning();
+        mAnimator.setOnZoomChangeListener(zoomListener);
+        mAnimator.setSharedTicker(sharedTicker);
+        mAnimator.setAdaptiveFrames(adaptiveFrames);
     }
 
     /**
@@ -99,108 +419,453 @@ public class MovingImageView extends ImageView {
         canvasHeight = (float) h - (float) (getPaddingTop() + getPaddingBottom());
         //after canvas changes need an update
         updateAll();
+        if (hasSource())
+            loadSource();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        attached = true;
+        getViewTreeObserver().addOnScrollChangedListener(scrollChangedListener);
+        if (updatePending)
+            getViewTreeObserver().addOnPreDrawListener(updateListener);
+        updatePanning();
+        updateAutoPause();
+        updateMemoryCallbacks();
+        if (memoryTier != MEMORY_TIER_FULL)
+            postDelayed(memoryRestoreRunnable, MEMORY_RESTORE_DELAY);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        attached = false;
+        getViewTreeObserver().removeOnScrollChangedListener(scrollChangedListener);
+        if (updatePending)
+            getViewTreeObserver().removeOnPreDrawListener(updateListener);
+        endFade();
+        updateAutoPause();
+        updateMemoryCallbacks();
+        removeCallbacks(memoryRestoreRunnable);
+        super.onDetachedFromWindow();
+    }
+
+    /**
+     * Zoom center follows the scroll.
+     */
+    @Override
+    protected void onScrollChanged(int l, int t, int oldl, int oldt) {
+        super.onScrollChanged(l, t, oldl, oldt);
+        if (zoom != 1f)
+            updateDrawMatrix();
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        updateAutoPause();
+    }
+
+    @Override
+    public void onWindowFocusChanged(boolean hasWindowFocus) {
+        super.onWindowFocusChanged(hasWindowFocus);
+        if (mAnimator.getQualityPolicy() != null)
+            mAnimator.updateQuality();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateAutoPause();
+    }
+
+    /**
+     * Pauses the animator while nothing of the view can be seen and resumes it
+     * from the same position when it comes back. Shared ticker views always leave
+     * the ticker when detached. Images dropped on memory pressure are loaded again once seen.
+     */
+    private void updateAutoPause() {
+        if (mAnimator == null)
+            return;
+
+        boolean offScreen = isOffScreen();
+        if (sourceStale && !offScreen)
+            loadSource();
+        boolean hidden = (!attached && mAnimator.isSharedTicker()) || autoPause && offScreen;
+
+        if (hidden) {
+            if (!autoPaused && mAnimator.isRunning() && !mAnimator.isPaused()) {
+                mAnimator.pause();
+                autoPaused = mAnimator.isPaused();
+                autoPausedTime = SystemClock.uptimeMillis();
+            }
+        } else if (autoPaused) {
+            autoPaused = false;
+            suppressedFrameEstimate += (long) ((SystemClock.uptimeMillis() - autoPausedTime) / FRAME_TIME);
+            mAnimator.resume();
+        }
+    }
+
+    /**
+     * Translation panning moves the view bounds away while the clipped window stays in place,
+     * so the window is tested on the parent visible area instead.
+     */
+    private boolean isOffScreen() {
+        if (!attached || getWindowVisibility() != VISIBLE || !isShown())
+            return true;
+        if (!translating)
+            return !getLocalVisibleRect(visibleRect);
+
+        View parent = (View) getParent();
+        if (!parent.getLocalVisibleRect(visibleRect))
+            return true;
+        int left = Math.round(getLeft() - parent.getScrollX() + getTranslationX()) + (int) panX;
+        int top = Math.round(getTop() - parent.getScrollY() + getTranslationY()) + (int) panY;
+        return !visibleRect.intersects(left, top, left + getWidth(), top + getHeight());
+    }
+
+    /**
+     * Tiled images prefetch on the direction of the active path segment.
+     * Outgoing slide is drawn over the image while it fades, then parallax layers.
+     * Anything under an opaque layer is not drawn.
+     *
+     * @param canvas view canvas.
+     */
+    @Override
+    protected void onDraw(Canvas canvas) {
+        int firstLayer = getFirstVisibleLayer();
+        if (firstLayer < 0) {
+            if (getDrawable() instanceof MovingTileDrawable) {
+                mAnimator.getDirection(direction);
+                ((MovingTileDrawable) getDrawable()).setDirection(direction[0], direction[1]);
+            }
+            super.onDraw(canvas);
+            if (fadingDrawable != null) {
+                //keep it where it was when the fade started
+                int saveCount = canvas.save();
+                canvas.translate(getPanLeft() - fadeX + getPaddingLeft(), getPanTop() - fadeY + getPaddingTop());
+                canvas.concat(fadeMatrix);
+                fadingDrawable.setAlpha(fadeAlpha);
+                fadingDrawable.draw(canvas);
+                canvas.restoreToCount(saveCount);
+            }
+        }
+        if (!layers.isEmpty())
+            drawLayers(canvas, Math.max(firstLayer, 0));
+    }
+
+    /**
+     * Layers always cover the canvas, the top opaque one hides everything under it.
+     *
+     * @return index of the top opaque layer, -1 if the image can be seen.
+     */
+    private int getFirstVisibleLayer() {
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            if (layers.get(i).drawable.getOpacity() == PixelFormat.OPAQUE)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Draws the layers in one pass, each one moved by its speed factor along the path.
+     */
+    private void drawLayers(Canvas canvas, int first) {
+        float left = getScrollX() + getPaddingLeft();
+        float top = getScrollY() + getPaddingTop();
+        //path position, scroll or sub-pixel pan
+        float x = getScrollX() + panX;
+        float y = getScrollY() + panY;
+
+        int saveCount = canvas.save();
+        canvas.clipRect(left, top, left + canvasWidth, top + canvasHeight);
+        for (int i = first; i < layers.size(); i++) {
+            Layer layer = layers.get(i);
+            int layerCount = canvas.save();
+            canvas.translate(left - layer.speedFactor * x, top - layer.speedFactor * y);
+            canvas.concat(layer.matrix);
+            layer.drawable.draw(canvas);
+            canvas.restoreToCount(layerCount);
+        }
+        canvas.restoreToCount(saveCount);
+    }
+
+    @Override
+    protected boolean verifyDrawable(Drawable who) {
+        //super constructor can get here
+        for (int i = 0; layers != null && i < layers.size(); i++) {
+            if (layers.get(i).drawable == who)
+                return true;
+        }
+        return super.verifyDrawable(who);
+    }
+
+    /**
+     * Visible window position on view coordinates, scroll or translation panning.
+     */
+    private float getPanLeft() {
+        return getScrollX() + (translating ? panX : 0);
+    }
+
+    private float getPanTop() {
+        return getScrollY() + (translating ? panY : 0);
     }
 
+    /**
+     * Schedules a layout update before next draw. Several setter calls on the same frame
+     * end up on a single update. The listener is only on the window observer while attached,
+     * a detached view registers it on attach.
+     */
     private void updateAll() {
+        if (updatePending)
+            return;
+
+        updatePending = true;
+        if (updateListener == null) {
+            updateListener = new ViewTreeObserver.OnPreDrawListener() {
+                @Override
+                public boolean onPreDraw() {
+                    flushUpdate();
+                    return true;
+                }
+            };
+        }
+        if (attached)
+            getViewTreeObserver().addOnPreDrawListener(updateListener);
+        invalidate();
+    }
+
+    /**
+     * Runs a pending layout update now.
+     */
+    private void flushUpdate() {
+        if (!updatePending)
+            return;
+
+        updatePending = false;
+        if (attached)
+            getViewTreeObserver().removeOnPreDrawListener(updateListener);
         if (getDrawable() != null) {
+            updatePanning();
             updateImageSize();
-            updateOffsets();
             updateAnimator();
         }
     }
 
-    private void updateImageSize() {
-        imageWidth = getDrawable().getIntrinsicWidth();
-        imageHeight = getDrawable().getIntrinsicHeight();
-    }
-
     /**
-     * Offset is the difference between image and canvas including the min relative size.
-     * Determines the base path animation length.
+     * Image size is the logical one, a downsampled bitmap is scaled back by imageScale.
+     * Loaded images take the exact source size, previews and full images get the same layout.
      */
-    private void updateOffsets() {
-        float minSizeX = imageWidth * minRelativeOffset;
-        float minSizeY = imageHeight * minRelativeOffset;
-        offsetWidth = (imageWidth - canvasWidth - minSizeX) > 0 ? imageWidth - canvasWidth : 0;
-        offsetHeight = (imageHeight - canvasHeight - minSizeY) > 0 ? imageHeight - canvasHeight : 0;
+    private void updateImageSize() {
+        if (sourceWidth > 0 && sourceHeight > 0) {
+            imageWidth = sourceWidth;
+            imageHeight = sourceHeight;
+            return;
+        }
+        imageWidth = getDrawable().getIntrinsicWidth() * imageScale;
+        imageHeight = getDrawable().getIntrinsicHeight() * imageScale;
     }
 
     /**
-     * Gets scale and sets the real length path on Animator.
+     * Gets scale and sets the real length path on Animator. The animator is only rebuilt
+     * when the layout inputs change.
      */
     private void updateAnimator() {
         if (canvasHeight == 0 && canvasWidth == 0)
             return;
 
-        float scale = calculateTypeAndScale();
-        if (scale == 0)
+        boolean changed = layout.update(imageWidth, imageHeight, canvasWidth, canvasHeight,
+                maxRelativeSize, minRelativeOffset);
+        if (!layout.isValid())
             return;
 
-        float w = (imageWidth * scale) - canvasWidth;
-        float h = (imageHeight * scale) - canvasHeight;
+        if (changed)
+            updateMatrix();
+        else if (matrixImageScale != imageScale)
+            updateImageScale();
+        if (changed) {
+            updateLayers();
+            mAnimator.updateValues(layout.getMovementType(), layout.getPathWidth(), layout.getPathHeight());
+            mAnimator.setStartDelay(startDelay);
+            mAnimator.setSpeed(mSpeed);
+            mAnimator.setRepetition(mRepetitions);
+
+            if (loadOnCreate) {
+                autoPaused = false;
+                mAnimator.start();
+                updateAutoPause();
+            }
+        }
+        updateMipLevels();
+        applyRestoredState();
+    }
+
+    /**
+     * Continues from the saved play time once the animator is built.
+     */
+    private void applyRestoredState() {
+        if (restoredPlayTime < 0)
+            return;
+
+        mAnimator.seek(restoredPlayTime);
+        if (restoredPaused)
+            mAnimator.pause();
+        restoredPlayTime = -1;
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState state = new SavedState(super.onSaveInstanceState());
+        state.playTime = mAnimator.isRunning() ? mAnimator.getPlayTime() : -1;
+        state.paused = mAnimator.isPaused() && !autoPaused;
+        return state;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
 
-        mAnimator.updateValues(movementType, w, h);
-        mAnimator.setStartDelay(startDelay);
-        mAnimator.setSpeed(mSpeed);
-        mAnimator.setRepetition(mRepetitions);
+        SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        restoredPlayTime = savedState.playTime;
+        restoredPaused = savedState.paused;
+        if (layout.isValid() && !updatePending)
+            applyRestoredState();
+    }
 
-        if (loadOnCreate)
-            mAnimator.start();
+    /**
+     * Sets the image matrix for the computed layout.
+     */
+    private void updateMatrix() {
+        float scale = layout.getScale() * imageScale;
+        matrixImageScale = imageScale;
+        baseMatrix.setTranslate(layout.getTranslateX(), layout.getTranslateY());
+        baseMatrix.preScale(scale, scale);
+        clearPan();
     }
 
     /**
-     * Sets the best movement type and scale.
-     *
-     * @return image scale.
+     * Same layout with another image resolution, keeps the current pan so the image
+     * doesn't move.
      */
-    private float calculateTypeAndScale() {
-        movementType = MovingViewAnimator.AUTO_MOVE;
-        float scale = 1f;
-        float scaleByImage = Math.max(imageWidth / canvasWidth, imageHeight / canvasHeight);
-        Matrix m = new Matrix();
+    private void updateImageScale() {
+        float scale = layout.getScale() * imageScale;
+        matrixImageScale = imageScale;
+        baseMatrix.setTranslate(layout.getTranslateX(), layout.getTranslateY());
+        baseMatrix.preScale(scale, scale);
+        updateDrawMatrix();
+    }
 
-        //Image is too small to performs any animation, needs a scale
-        if (offsetWidth == 0 && offsetHeight == 0) {
-            float sW = canvasWidth / imageWidth;
-            float sH = canvasHeight / imageHeight;
+    /**
+     * Image matrix for the current pan and zoom. Translation panning moves the view instead,
+     * scroll panning moves the canvas; zoom is on the center of the visible window.
+     */
+    private void updateDrawMatrix() {
+        drawMatrix.set(baseMatrix);
+        if (!translating)
+            drawMatrix.postTranslate(-panX, -panY);
+        if (zoom != 1f)
+            drawMatrix.postScale(zoom, zoom, getPanLeft() + getPaddingLeft() + canvasWidth / 2f,
+                    getPanTop() + getPaddingTop() + canvasHeight / 2f);
+        setImageMatrix(drawMatrix);
+        if (getDrawable() instanceof MovingMipDrawable && layout.isValid())
+            ((MovingMipDrawable) getDrawable()).setScale(layout.getScale() * imageScale * zoom);
+    }
 
-            if (sW > sH) {
-                scale = Math.min(sW, maxRelativeSize);
-                m.setTranslate((canvasWidth - imageWidth * scale) / 2f, 0);
-                movementType = MovingViewAnimator.VERTICAL_MOVE;
+    /**
+     * Zoom paths draw the image at many scales. Big bitmaps get mip levels built in
+     * background, so sampling cost stays about the same on the whole zoom range.
+     */
+    private void updateMipLevels() {
+        if (!layout.isValid() || (zoom == 1f && !mAnimator.hasZoom()) || mipSource != null
+                || !(getDrawable() instanceof BitmapDrawable) || memoryTier != MEMORY_TIER_FULL)
+            return;
 
-            } else if (sW < sH) {
-                scale = Math.min(sH, maxRelativeSize);
-                m.setTranslate(0, (canvasHeight - imageHeight * scale) / 2f);
-                movementType = MovingViewAnimator.HORIZONTAL_MOVE;
+        final Drawable drawable = getDrawable();
+        final Bitmap source = ((BitmapDrawable) drawable).getBitmap();
+        //screen pixels per bitmap pixel, intrinsic size is density scaled
+        final float minScale = layout.getScale() * imageScale * drawable.getIntrinsicWidth()
+                / Math.max(source.getWidth(), 1);
+        if (minScale >= 0.5f)
+            return;
 
-            } else {
-                scale = Math.max(sW, maxRelativeSize);
-                movementType = (scale == sW) ? MovingViewAnimator.NONE_MOVE :
-                        MovingViewAnimator.DIAGONAL_MOVE;
+        mipSource = drawable;
+        MovingImageLoader.execute(new Runnable() {
+            @Override
+            public void run() {
+                final Bitmap[] levels = MovingMipDrawable.createLevels(source, minScale);
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        MovingMipDrawable mipDrawable = new MovingMipDrawable(getResources(), levels);
+                        if (mipSource != drawable || getDrawable() != drawable) {
+                            mipDrawable.release();
+                            return;
+                        }
+                        mipSource = null;
+                        MovingImageView.super.setImageDrawable(mipDrawable);
+                        updateDrawMatrix();
+                    }
+                });
             }
+        });
+    }
 
-          //Width too small to perform any horizontal animation, scale to width
-        } else if (offsetWidth == 0) {
-            scale = canvasWidth / imageWidth;
-            movementType = MovingViewAnimator.VERTICAL_MOVE;
-
-          //Height too small to perform any vertical animation, scale to height
-        } else if (offsetHeight == 0) {
-            scale = canvasHeight / imageHeight;
-            movementType = MovingViewAnimator.HORIZONTAL_MOVE;
-
-          //Enough size but too big, resize down
-        } else if (scaleByImage > maxRelativeSize) {
-            scale = maxRelativeSize / scaleByImage;
-            if(imageWidth * scale < canvasWidth || imageHeight * scale < canvasHeight) {
-                scale = Math.max(canvasWidth / imageWidth, canvasHeight / imageHeight);
-            }
+    /**
+     * Picks how the animator moves the image: view translation, image matrix or scroll.
+     */
+    private void updatePanning() {
+        //super constructor can get here
+        if (mAnimator == null)
+            return;
+
+        boolean translate = translationPanning && canTranslate();
+        if (translate != translating) {
+            clearPan();
+            scrollTo(0, 0);
+            translating = translate;
         }
 
-        m.preScale(scale, scale);
-        setImageMatrix(m);
-        return scale;
+        if (translating)
+            mAnimator.setOnPositionChangeListener(translationListener);
+        else
+            mAnimator.setOnPositionChangeListener(subPixel ? subPixelListener : null);
+        if (translating || subPixel)
+            mAnimator.setPathEngineEnabled(true);
+        mAnimator.setFrameStep((subPixel && !translating) ? MIN_PAN_STEP : 1f);
+    }
+
+    /**
+     * Translation panning draws the image out of the view bounds, so the parent can't clip
+     * children, and background, padding clip, layers and tiles would move along with the image.
+     *
+     * @return true if the view can pan with translation.
+     */
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private boolean canTranslate() {
+        if (Build.VERSION.SDK_INT < TRANSLATION_PANNING_SDK || !(getParent() instanceof ViewGroup))
+            return false;
+
+        return !((ViewGroup) getParent()).getClipChildren() && getBackground() == null && layers.isEmpty()
+                && !getCropToPadding() && !(getDrawable() instanceof MovingTileDrawable);
+    }
+
+    /**
+     * Undoes the pan set by sub-pixel or translation panning.
+     */
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private void clearPan() {
+        if (translating) {
+            setTranslationX(getTranslationX() + panX);
+            setTranslationY(getTranslationY() + panY);
+            setClipBounds(null);
+        }
+        panX = 0;
+        panY = 0;
+        updateDrawMatrix();
     }
 
     /**
@@ -216,24 +881,423 @@ public class MovingImageView extends ImageView {
 
     @Override
     public void setImageResource(int resId) {
+        stopSlideshow();
+        if ((downsample || tiled) && resId != 0) {
+            setSource(resId, null, null);
+            return;
+        }
+        clearSource();
+        releaseDrawable();
         super.setImageResource(resId);
         updateAll();
     }
 
     @Override
     public void setImageURI(Uri uri) {
+        stopSlideshow();
+        if ((downsample || tiled) && uri != null) {
+            setSource(0, uri, null);
+            return;
+        }
+        clearSource();
+        releaseDrawable();
         super.setImageURI(uri);
         updateAll();
     }
 
     @Override
     public void setImageDrawable(Drawable drawable) {
+        stopSlideshow();
+        clearSource();
+        releaseDrawable();
         super.setImageDrawable(drawable);
         updateAll();
     }
 
+    /**
+     * Starts moving a low resolution preview while the image is decoded in background,
+     * sampled down as on {@link #setDownsample(boolean)}. The image then swaps in place
+     * without restarting the animation. Preview is scaled to the image size, it should
+     * have the same aspect ratio.
+     *
+     * @param resId   image resource.
+     * @param preview low resolution preview, shown once the image bounds are decoded.
+     */
+    public void setImageResource(int resId, Drawable preview) {
+        if (resId == 0) {
+            setImageResource(resId);
+            return;
+        }
+        stopSlideshow();
+        setSource(resId, null, preview);
+    }
+
+    /**
+     * Same as {@link #setImageResource(int, Drawable)} for an image uri.
+     *
+     * @param uri     image uri.
+     * @param preview low resolution preview, shown once the image bounds are decoded.
+     */
+    public void setImageURI(Uri uri, Drawable preview) {
+        if (uri == null) {
+            setImageURI(uri);
+            return;
+        }
+        stopSlideshow();
+        setSource(0, uri, preview);
+    }
+
+    /**
+     * Keeps the source for a downsampled load. Loads now if canvas size is known,
+     * otherwise on next size change.
+     */
+    private void setSource(int resId, Uri uri, Drawable preview) {
+        //same image already on its way, a new decode would only replace it
+        if (preview == null && pendingRequest != null && pendingRequest.tiled == tiled
+                && pendingRequest.isSameSource(resId, uri))
+            return;
+
+        clearSource();
+        sourceResId = resId;
+        sourceUri = uri;
+        if (preview != null && preview.getIntrinsicWidth() > 0 && preview.getIntrinsicHeight() > 0)
+            previewDrawable = preview;
+        loadSource();
+    }
+
+    private void clearSource() {
+        sourceResId = 0;
+        sourceUri = null;
+        pendingRequest = null;
+        previewDrawable = null;
+        sourceStale = false;
+        sampleSize = 0;
+        imageScale = 1f;
+        sourceWidth = 0;
+        sourceHeight = 0;
+    }
+
+    /**
+     * Current drawable is going to be replaced. Tiled drawable owns a region decoder
+     * and cached bitmaps go back to the image cache.
+     */
+    private void releaseDrawable() {
+        mipSource = null;
+        if (getDrawable() instanceof MovingTileDrawable)
+            ((MovingTileDrawable) getDrawable()).release();
+        if (getDrawable() instanceof MovingMipDrawable)
+            ((MovingMipDrawable) getDrawable()).release();
+        if (cachedBitmap != null) {
+            cachedBitmapOwner.release(cachedBitmap);
+            cachedBitmap = null;
+            cachedBitmapOwner = null;
+        }
+    }
+
+    /**
+     * Gives back what an unused load result holds.
+     */
+    private void releaseResult(MovingImageLoader.Request request, Drawable drawable) {
+        if (request.bitmap != null)
+            request.cache.release(request.bitmap);
+        if (drawable instanceof MovingTileDrawable)
+            ((MovingTileDrawable) drawable).release();
+    }
+
+    private int getSlideCount() {
+        if (slideResIds != null)
+            return slideResIds.length;
+        return (slideUris != null) ? slideUris.length : 0;
+    }
+
+    /**
+     * Decodes the slide after the current one in background.
+     */
+    private void prefetchSlide() {
+        if (canvasWidth <= 0 && canvasHeight <= 0)
+            return;
+
+        int index = (slideIndex + 1) % getSlideCount();
+        nextRequest = new MovingImageLoader.Request((slideResIds != null) ? slideResIds[index] : 0,
+                (slideUris != null) ? slideUris[index] : null, canvasWidth, canvasHeight,
+                maxRelativeSize, minRelativeOffset, decodeConfig, tiled, imageCache, 0, getSampleFactor());
+        MovingImageLoader.load(getContext(), nextRequest, slideLoaderCallback);
+    }
+
+    /**
+     * Swaps to the prefetched slide and fades the current one out.
+     */
+    private void showNextSlide() {
+        MovingImageLoader.Request request = nextRequest;
+        Drawable drawable = nextDrawable;
+        nextRequest = null;
+        nextDrawable = null;
+        slideDue = false;
+        slideIndex = (slideIndex + 1) % getSlideCount();
+
+        startFade();
+        cachedBitmap = request.bitmap;
+        cachedBitmapOwner = request.cache;
+        sourceResId = request.resId;
+        sourceUri = request.uri;
+        pendingRequest = null;
+        sampleSize = request.sampleSize;
+        imageScale = request.imageScale;
+        sourceWidth = request.imageWidth;
+        sourceHeight = request.imageHeight;
+        super.setImageDrawable(drawable);
+        updateAll();
+        //canvas or memory tier changed while it was loading
+        if (request.canvasWidth != canvasWidth || request.canvasHeight != canvasHeight
+                || request.sampleFactor != getSampleFactor())
+            loadSource();
+        if (memoryTier == MEMORY_TIER_FULL)
+            prefetchSlide();
+    }
+
+    /**
+     * Takes over the current drawable and fades it out.
+     */
+    private void startFade() {
+        endFade();
+        if (getDrawable() == null || crossfadeDuration <= 0) {
+            releaseDrawable();
+            return;
+        }
+
+        fadingDrawable = getDrawable().mutate();
+        fadingBitmap = cachedBitmap;
+        fadingBitmapOwner = cachedBitmapOwner;
+        cachedBitmap = null;
+        cachedBitmapOwner = null;
+        fadeMatrix.set(getImageMatrix());
+        fadeX = getPanLeft();
+        fadeY = getPanTop();
+        fadeAlpha = 255;
+
+        if (fadeAnimator == null) {
+            fadeAnimator = ValueAnimator.ofFloat(0f, 1f);
+            fadeAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+                @Override
+                public void onAnimationUpdate(ValueAnimator animation) {
+                    fadeAlpha = (int) (255 * (1f - animation.getAnimatedFraction()));
+                    invalidate();
+                }
+            });
+            fadeAnimator.addListener(new AnimatorListenerAdapter() {
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    endFade();
+                }
+            });
+        }
+        fadeAnimator.setDuration(crossfadeDuration);
+        fadeAnimator.start();
+    }
+
+    /**
+     * Drops the outgoing slide, tiled drawables and cached bitmaps are released.
+     */
+    private void endFade() {
+        if (fadingDrawable == null)
+            return;
+
+        Drawable drawable = fadingDrawable;
+        fadingDrawable = null;
+        fadeAnimator.cancel();
+        if (drawable instanceof MovingTileDrawable)
+            ((MovingTileDrawable) drawable).release();
+        if (drawable instanceof MovingMipDrawable)
+            ((MovingMipDrawable) drawable).release();
+        if (fadingBitmap != null) {
+            fadingBitmapOwner.release(fadingBitmap);
+            fadingBitmap = null;
+            fadingBitmapOwner = null;
+        }
+        invalidate();
+    }
+
+    private boolean hasSource() {
+        return sourceResId != 0 || sourceUri != null;
+    }
+
+    private void loadSource() {
+        sourceStale = false;
+        if (canvasWidth <= 0 && canvasHeight <= 0)
+            return;
+
+        pendingRequest = new MovingImageLoader.Request(sourceResId, sourceUri, canvasWidth, canvasHeight,
+                maxRelativeSize, minRelativeOffset, decodeConfig, tiled, imageCache, sampleSize,
+                getSampleFactor());
+        MovingImageLoader.load(getContext(), pendingRequest,
+                (previewDrawable != null) ? previewLoaderCallback : imageLoaderCallback);
+    }
+
+    private int getSampleFactor() {
+        return 1 << memoryTier;
+    }
+
+    /**
+     * Maps a trim level to the memory tier it needs. Hidden UI alone is no pressure,
+     * off-screen views already pause.
+     *
+     * @param level <code>ComponentCallbacks2</code> trim level.
+     * @return memory tier.
+     */
+    private static int getMemoryTier(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL)
+            return MEMORY_TIER_LOW;
+        if (level == ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN)
+            return MEMORY_TIER_FULL;
+        return (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) ? MEMORY_TIER_REDUCED : MEMORY_TIER_FULL;
+    }
+
+    private boolean isMemoryLow() {
+        ActivityManager activityManager = (ActivityManager) getContext().getApplicationContext()
+                .getSystemService(Context.ACTIVITY_SERVICE);
+        if (memoryInfo == null)
+            memoryInfo = new ActivityManager.MemoryInfo();
+        activityManager.getMemoryInfo(memoryInfo);
+        return memoryInfo.lowMemory;
+    }
+
+    private void updateMemoryCallbacks() {
+        boolean register = trimMemory && attached;
+        if (register == memoryCallbacksRegistered)
+            return;
+
+        memoryCallbacksRegistered = register;
+        if (register)
+            getContext().getApplicationContext().registerComponentCallbacks(memoryCallbacks);
+        else
+            getContext().getApplicationContext().unregisterComponentCallbacks(memoryCallbacks);
+    }
+
+    /**
+     * Steps to another memory tier. Reduced tier drops mip levels and the slideshow prefetch
+     * and decodes images twice as sampled. Low tier samples four times, drops images of
+     * off-screen views and switches the animator to the path engine until full tier.
+     * The path position is kept; dropped images load again once the view is seen.
+     * A shared {@link LruMovingImageCache} trims itself, it's registered by its owner.
+     *
+     * @param tier new memory tier.
+     */
+    private void setMemoryTier(int tier) {
+        if (tier == memoryTier)
+            return;
+
+        int previousTier = memoryTier;
+        memoryTier = tier;
+        removeCallbacks(memoryRestoreRunnable);
+        if (tier != MEMORY_TIER_FULL) {
+            releasePrefetch();
+            releaseMipLevels();
+            if (attached)
+                postDelayed(memoryRestoreRunnable, MEMORY_RESTORE_DELAY);
+        }
+        if (tier == MEMORY_TIER_LOW)
+            releaseAnimators();
+
+        if (hasSource()) {
+            if (tier == MEMORY_TIER_LOW && isOffScreen())
+                dropSource();
+            //full quality is restored lazily, once seen
+            else if (tier == MEMORY_TIER_FULL && isOffScreen())
+                sourceStale = true;
+            else
+                loadSource();
+        }
+        if (tier == MEMORY_TIER_FULL) {
+            restoreAnimators();
+            updateMipLevels();
+            if (nextRequest == null && getSlideCount() > 1)
+                prefetchSlide();
+        }
+
+        if (memoryTierListener != null)
+            memoryTierListener.onMemoryTierChanged(tier, previousTier);
+    }
+
+    /**
+     * Drops the image, keeping its logical size so the same layout and position
+     * go on when it loads again.
+     */
+    private void dropSource() {
+        pendingRequest = null;
+        endFade();
+        releaseDrawable();
+        sampleSize = 0;
+        super.setImageDrawable(null);
+        sourceStale = true;
+    }
+
+    private void releasePrefetch() {
+        if (nextDrawable != null)
+            releaseResult(nextRequest, nextDrawable);
+        nextRequest = null;
+        nextDrawable = null;
+    }
+
+    /**
+     * Keeps the source bitmap only.
+     */
+    private void releaseMipLevels() {
+        mipSource = null;
+        if (!(getDrawable() instanceof MovingMipDrawable))
+            return;
+
+        MovingMipDrawable mipDrawable = (MovingMipDrawable) getDrawable();
+        mipDrawable.release();
+        super.setImageDrawable(new BitmapDrawable(getResources(), mipDrawable.getSource()));
+        updateDrawMatrix();
+    }
+
+    /**
+     * Path engine holds a single animator instead of one per segment. Crossfade animator
+     * is created again on next slide.
+     */
+    private void releaseAnimators() {
+        endFade();
+        fadeAnimator = null;
+        if (mAnimator.isPathEngineEnabled())
+            return;
+
+        setPathEngine(true);
+        memoryPathEngine = true;
+    }
+
+    /**
+     * Goes back to object animators, unless panning or the slideshow still need the path engine.
+     */
+    private void restoreAnimators() {
+        if (!memoryPathEngine)
+            return;
+
+        memoryPathEngine = false;
+        if (!translating && !subPixel && getSlideCount() == 0)
+            setPathEngine(false);
+    }
+
+    /**
+     * Switches the animator backend, keeping the path position and the pause.
+     */
+    private void setPathEngine(boolean enabled) {
+        if (!mAnimator.isRunning()) {
+            mAnimator.setPathEngineEnabled(enabled);
+            return;
+        }
+        long playTime = mAnimator.getPlayTime();
+        boolean paused = mAnimator.isPaused();
+        mAnimator.setPathEngineEnabled(enabled);
+        mAnimator.seek(playTime);
+        if (paused)
+            mAnimator.pause();
+    }
+
     @Override
     public void setImageBitmap(Bitmap bm) {
+        stopSlideshow();
         super.setImageBitmap(bm);
         updateAll();
     }
@@ -244,6 +1308,7 @@ public class MovingImageView extends ImageView {
      * @return Moving Animator.
      */
     public MovingViewAnimator getMovingAnimator() {
+        flushUpdate();
         return mAnimator;
     }
 
@@ -253,7 +1318,7 @@ public class MovingImageView extends ImageView {
 
     public void setMaxRelativeSize(float max) {
         maxRelativeSize = max;
-        updateAnimator();
+        updateAll();
     }
 
     public float getMinRelativeOffset() {
@@ -262,7 +1327,350 @@ public class MovingImageView extends ImageView {
 
     public void setMinRelativeOffset(float min) {
         minRelativeOffset = min;
-        updateAnimator();
+        updateAll();
+    }
+
+    public boolean isSubPixel() {
+        return subPixel;
+    }
+
+    /**
+     * Pans the image matrix with float precision instead of int scroll. Uses the
+     * animator path engine.
+     *
+     * @param subPixel true for sub-pixel panning.
+     */
+    public void setSubPixel(boolean subPixel) {
+        if (this.subPixel == subPixel)
+            return;
+
+        this.subPixel = subPixel;
+        if (!translating) {
+            clearPan();
+            scrollTo(0, 0);
+        }
+        updatePanning();
+    }
+
+    public boolean isTranslationPanning() {
+        return translationPanning;
+    }
+
+    /**
+     * Pans by translating the view and clipping it back to its bounds, so frames are only
+     * render node property changes and the view is never recorded again. Nougat and up,
+     * earlier clip bounds record the view again. Only while the parent doesn't clip children
+     * (<code>android:clipChildren="false"</code>), the view has no background and doesn't
+     * crop to padding; otherwise it keeps scroll or sub-pixel panning.
+     * Touch area moves along with the translation.
+     *
+     * @param translationPanning true to pan with translation.
+     */
+    public void setTranslationPanning(boolean translationPanning) {
+        this.translationPanning = translationPanning;
+        updatePanning();
+    }
+
+    /**
+     * Translation panning can't crop to padding.
+     *
+     * @param cropToPadding true to crop to padding.
+     */
+    @Override
+    public void setCropToPadding(boolean cropToPadding) {
+        super.setCropToPadding(cropToPadding);
+        updatePanning();
+    }
+
+    public boolean isAutoPause() {
+        return autoPause;
+    }
+
+    /**
+     * Pauses the animation while the view is detached, hidden or scrolled out.
+     *
+     * @param autoPause true to pause hidden views.
+     */
+    public void setAutoPause(boolean autoPause) {
+        this.autoPause = autoPause;
+        updateAutoPause();
+    }
+
+    public boolean isSharedTicker() {
+        return mAnimator.isSharedTicker();
+    }
+
+    /**
+     * Drives the animation from the clock shared by all views, see
+     * {@link MovingViewAnimator#setSharedTicker(boolean)}.
+     *
+     * @param sharedTicker true to use the shared ticker.
+     */
+    public void setSharedTicker(boolean sharedTicker) {
+        this.sharedTicker = sharedTicker;
+        mAnimator.setSharedTicker(sharedTicker);
+        updateAutoPause();
+    }
+
+    public boolean isAdaptiveFrames() {
+        return mAnimator.isAdaptiveFrames();
+    }
+
+    /**
+     * Skips frames that would draw the image at the same pixel, see
+     * {@link MovingViewAnimator#setAdaptiveFrames(boolean)}. Enables the shared ticker.
+     *
+     * @param adaptiveFrames true for adaptive frames.
+     */
+    public void setAdaptiveFrames(boolean adaptiveFrames) {
+        this.adaptiveFrames = adaptiveFrames;
+        mAnimator.setAdaptiveFrames(adaptiveFrames);
+        updateAutoPause();
+    }
+
+    /**
+     * Frames not rendered while the animation was auto paused, estimated from the paused
+     * time at 60fps. Frames aren't counted, the display could run at another rate.
+     *
+     * @return estimated suppressed frames.
+     */
+    public long getSuppressedFrameEstimate() {
+        return suppressedFrameEstimate;
+    }
+
+    public boolean isDownsample() {
+        return downsample;
+    }
+
+    /**
+     * Decodes images set by resource or uri off the main thread, sampled down to the
+     * size they are shown. Applies from the next <code>setImageResource</code> or
+     * <code>setImageURI</code> call.
+     *
+     * @param downsample true to downsample images.
+     */
+    public void setDownsample(boolean downsample) {
+        this.downsample = downsample;
+    }
+
+    public boolean isTiled() {
+        return tiled;
+    }
+
+    /**
+     * Renders images set by resource or uri as tiles decoded with
+     * <code>BitmapRegionDecoder</code>. Only tiles around the viewport are kept in memory,
+     * for panoramas much bigger than the screen. Applies from the next
+     * <code>setImageResource</code> or <code>setImageURI</code> call.
+     *
+     * @param tiled true to render tiles.
+     */
+    public void setTiled(boolean tiled) {
+        this.tiled = tiled;
+    }
+
+    public MovingImageCache getImageCache() {
+        return imageCache;
+    }
+
+    /**
+     * Sets the cache for downsampled images. Share the same instance between views
+     * to reuse decoded images and pooled bitmaps.
+     *
+     * @param cache image cache, null for no cache.
+     */
+    public void setImageCache(MovingImageCache cache) {
+        imageCache = cache;
+    }
+
+    /**
+     * Bitmap config for downsampled images. By default jpeg images use RGB_565.
+     *
+     * @param config bitmap config, null for default.
+     */
+    public void setDecodeConfig(Bitmap.Config config) {
+        decodeConfig = config;
+    }
+
+    public boolean isTrimMemory() {
+        return trimMemory;
+    }
+
+    /**
+     * Listens to system memory signals while attached. Under pressure the view steps down
+     * through memory tiers, keeping its path position, and goes back to full quality once
+     * memory is available again.
+     *
+     * @param trimMemory true to follow memory signals. Default true.
+     */
+    public void setTrimMemory(boolean trimMemory) {
+        this.trimMemory = trimMemory;
+        updateMemoryCallbacks();
+        if (!trimMemory)
+            setMemoryTier(MEMORY_TIER_FULL);
+    }
+
+    /**
+     * Current memory tier.
+     *
+     * @return one of MEMORY_TIER_FULL, MEMORY_TIER_REDUCED or MEMORY_TIER_LOW.
+     */
+    public int getMemoryTier() {
+        return memoryTier;
+    }
+
+    public void setOnMemoryTierChangeListener(OnMemoryTierChangeListener listener) {
+        memoryTierListener = listener;
+    }
+
+    /**
+     * Shows the images one after another. Next image is decoded in background while the
+     * current one moves and crossfades in when the path reaches the slideshow cue.
+     * Uses the animator path engine.
+     *
+     * @param resIds image resources.
+     */
+    public void setSlideshow(int... resIds) {
+        stopSlideshow();
+        if (resIds == null || resIds.length == 0)
+            return;
+
+        slideResIds = resIds.clone();
+        startSlideshow();
+    }
+
+    /**
+     * Same as {@link #setSlideshow(int...)} for image uris.
+     *
+     * @param uris image uris.
+     */
+    public void setSlideshow(Uri... uris) {
+        stopSlideshow();
+        if (uris == null || uris.length == 0)
+            return;
+
+        slideUris = uris.clone();
+        startSlideshow();
+    }
+
+    private void startSlideshow() {
+        slideIndex = 0;
+        mAnimator.setPathEngineEnabled(true);
+        mAnimator.setOnCueListener(slideCue, slideCueListener);
+        setSource((slideResIds != null) ? slideResIds[0] : 0, (slideUris != null) ? slideUris[0] : null, null);
+    }
+
+    /**
+     * Stops on the current image.
+     */
+    public void stopSlideshow() {
+        if (slideResIds == null && slideUris == null)
+            return;
+
+        slideResIds = null;
+        slideUris = null;
+        slideDue = false;
+        mAnimator.setOnCueListener(0, null);
+        releasePrefetch();
+    }
+
+    public float getSlideshowCue() {
+        return slideCue;
+    }
+
+    /**
+     * Path fraction where the next slide comes in, every loop.
+     *
+     * @param fraction path fraction, from 0 to 1. Default 0.9.
+     */
+    public void setSlideshowCue(float fraction) {
+        slideCue = fraction;
+        if (getSlideCount() > 0)
+            mAnimator.setOnCueListener(slideCue, slideCueListener);
+    }
+
+    public long getCrossfadeDuration() {
+        return crossfadeDuration;
+    }
+
+    /**
+     * @param duration slides crossfade duration in ms, 0 to swap them at once.
+     */
+    public void setCrossfadeDuration(long duration) {
+        crossfadeDuration = duration;
+    }
+
+    /**
+     * Adds a parallax layer over the image and previous layers. It moves along the same path,
+     * scaled to cover the canvas over its whole travel. Layers are drawn on the same pass
+     * as the image, by the same animator. Translation panning is not used while there are layers.
+     *
+     * @param drawable    layer drawable, transparent or opaque.
+     * @param speedFactor travel relative to the image: 1 moves with it, lower looks farther
+     *                    and 0 doesn't move, higher looks closer.
+     */
+    public void addLayer(Drawable drawable, float speedFactor) {
+        if (drawable == null)
+            return;
+
+        Layer layer = new Layer(drawable, Math.max(speedFactor, 0f));
+        drawable.setCallback(this);
+        layers.add(layer);
+        updateLayer(layer);
+        updatePanning();
+        invalidate();
+    }
+
+    public void removeLayer(Drawable drawable) {
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            if (layers.get(i).drawable == drawable) {
+                drawable.setCallback(null);
+                layers.remove(i);
+            }
+        }
+        updatePanning();
+        invalidate();
+    }
+
+    public void clearLayers() {
+        for (int i = 0; i < layers.size(); i++)
+            layers.get(i).drawable.setCallback(null);
+        layers.clear();
+        updatePanning();
+        invalidate();
+    }
+
+    public int getLayerCount() {
+        return layers.size();
+    }
+
+    private void updateLayers() {
+        for (int i = 0; i < layers.size(); i++)
+            updateLayer(layers.get(i));
+    }
+
+    /**
+     * Center crops a layer to the canvas plus its share of the path.
+     */
+    private void updateLayer(Layer layer) {
+        float pathWidth = layout.isValid() ? layout.getPathWidth() : 0;
+        float pathHeight = layout.isValid() ? layout.getPathHeight() : 0;
+        float width = canvasWidth + layer.speedFactor * pathWidth;
+        float height = canvasHeight + layer.speedFactor * pathHeight;
+        Drawable drawable = layer.drawable;
+        int w = drawable.getIntrinsicWidth();
+        int h = drawable.getIntrinsicHeight();
+        if (w <= 0 || h <= 0) {
+            //no size, like colors
+            drawable.setBounds(0, 0, (int) Math.ceil(width), (int) Math.ceil(height));
+            layer.matrix.reset();
+            return;
+        }
+
+        float scale = Math.max(width / w, height / h);
+        drawable.setBounds(0, 0, w, h);
+        layer.matrix.setTranslate((width - w * scale) / 2f, (height - h * scale) / 2f);
+        layer.matrix.preScale(scale, scale);
     }
 
     public boolean isLoadOnCreate() {
@@ -273,4 +1681,69 @@ public class MovingImageView extends ImageView {
         this.loadOnCreate = loadOnCreate;
     }
 
+    /**
+     * Memory tier transitions.
+     */
+    public interface OnMemoryTierChangeListener {
+
+        /**
+         * @param tier         new memory tier.
+         * @param previousTier previous memory tier.
+         */
+        void onMemoryTierChanged(int tier, int previousTier);
+    }
+
+    /**
+     * Parallax layer and its matrix for the current layout.
+     */
+    private static final class Layer {
+
+        final Drawable drawable;
+        final float speedFactor;
+        final Matrix matrix = new Matrix();
+
+        Layer(Drawable drawable, float speedFactor) {
+            this.drawable = drawable;
+            this.speedFactor = speedFactor;
+        }
+    }
+
+    /**
+     * Animation play time, the motion continues from there after a restore.
+     */
+    static class SavedState extends BaseSavedState {
+
+        long playTime;
+        boolean paused;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            playTime = in.readLong();
+            paused = in.readInt() != 0;
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeLong(playTime);
+            out.writeInt(paused ? 1 : 0);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
 }
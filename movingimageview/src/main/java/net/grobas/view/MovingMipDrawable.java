@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.view;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.drawable.Drawable;
+
+/**
+ * Bitmap drawable with precomputed mip levels, each one half the size of the previous.
+ * Draws the smallest level with at least a pixel per screen pixel, so zoomed out frames
+ * of a big image cost about the same to sample as zoomed in ones and don't alias.
+ * Must be drawn and released on main thread.
+ */
+final class MovingMipDrawable extends Drawable {
+
+    //level 0 is the source bitmap, not owned
+    private final Bitmap[] levels;
+    private final int width, height;
+    private final Paint paint;
+    private int level;
+
+    /**
+     * Same intrinsic size as a <code>BitmapDrawable</code> of the source, scaled to the display density.
+     *
+     * @param res    resources for the display density.
+     * @param levels mip levels from {@link #createLevels(Bitmap, float)}.
+     */
+    MovingMipDrawable(Resources res, Bitmap[] levels) {
+        this.levels = levels;
+        width = levels[0].getScaledWidth(res.getDisplayMetrics());
+        height = levels[0].getScaledHeight(res.getDisplayMetrics());
+        paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    }
+
+    /**
+     * Builds the levels needed down to a scale, off the main thread.
+     *
+     * @param source   full size bitmap.
+     * @param minScale smallest scale it's drawn at.
+     * @return mip levels, only the source if no level is needed.
+     */
+    static Bitmap[] createLevels(Bitmap source, float minScale) {
+        Bitmap[] levels = new Bitmap[getLevel(minScale) + 1];
+        levels[0] = source;
+        for (int i = 1; i < levels.length; i++) {
+            Bitmap previous = levels[i - 1];
+            try {
+                levels[i] = Bitmap.createScaledBitmap(previous, Math.max(previous.getWidth() / 2, 1),
+                        Math.max(previous.getHeight() / 2, 1), true);
+            } catch (OutOfMemoryError e) {
+                //keep the ones already built
+                Bitmap[] built = new Bitmap[i];
+                System.arraycopy(levels, 0, built, 0, i);
+                return built;
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Level with at least a pixel per screen pixel.
+     *
+     * @param scale screen pixels per source pixel.
+     */
+    private static int getLevel(float scale) {
+        if (scale >= 0.5f || scale <= 0)
+            return 0;
+        return (int) Math.floor(Math.log(1 / scale) / Math.log(2));
+    }
+
+    int getLevelCount() {
+        return levels.length;
+    }
+
+    /**
+     * Picks the level for the scale it's going to be drawn at.
+     *
+     * @param scale screen pixels per intrinsic pixel.
+     */
+    void setScale(float scale) {
+        int newLevel = Math.min(getLevel(scale * width / levels[0].getWidth()), levels.length - 1);
+        if (newLevel == level)
+            return;
+
+        level = newLevel;
+        invalidateSelf();
+    }
+
+    Bitmap getSource() {
+        return levels[0];
+    }
+
+    /**
+     * Recycles the levels built from the source.
+     */
+    void release() {
+        for (int i = 1; i < levels.length; i++)
+            levels[i].recycle();
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        canvas.drawBitmap(levels[level], null, getBounds(), paint);
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return width;
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return height;
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        paint.setAlpha(alpha);
+        invalidateSelf();
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        paint.setColorFilter(colorFilter);
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return (levels[0].hasAlpha() || paint.getAlpha() < 255) ? PixelFormat.TRANSLUCENT : PixelFormat.OPAQUE;
+    }
+
+}
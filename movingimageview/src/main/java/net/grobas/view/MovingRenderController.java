@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.view;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Bitmap;
+import android.graphics.SurfaceTexture;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.util.AttributeSet;
+import android.view.SurfaceHolder;
+import android.view.TextureView;
+import android.view.animation.Interpolator;
+
+import net.grobas.geometry.MovementPath;
+
+/**
+ * Controls the image drawn by a <code>MovingTextureView</code> or <code>MovingSurfaceView</code>.
+ * Owns its render thread, follows the surface lifecycle and decodes images for it.
+ * Called on main thread.
+ */
+public final class MovingRenderController {
+
+    private final MovingRenderer renderer = new MovingRenderer();
+    private final MovingRenderer.Target target;
+
+    //image source vars
+    private final Context context;
+    private int sourceResId;
+    private Uri sourceUri;
+    private int sampleSize;
+    private MovingImageLoader.Request pendingRequest;
+
+    private final MovingImageLoader.Callback loaderCallback = new MovingImageLoader.Callback() {
+        @Override
+        public void onImageLoaded(MovingImageLoader.Request request, Drawable drawable) {
+            if (request != pendingRequest)
+                return;
+
+            pendingRequest = null;
+            if (request.skipped || !(drawable instanceof BitmapDrawable))
+                return;
+
+            sampleSize = request.sampleSize;
+            renderer.setBitmap(((BitmapDrawable) drawable).getBitmap(), request.imageWidth, request.imageHeight);
+        }
+    };
+
+    /**
+     * Reads the <code>MovingImageView</code> attributes that apply to the renderer.
+     *
+     * @param target surface the view draws on.
+     */
+    MovingRenderController(Context context, AttributeSet attrs, int defStyle, MovingRenderer.Target target) {
+        this.context = context.getApplicationContext();
+        this.target = target;
+        TypedArray attributes = context.getTheme().obtainStyledAttributes(attrs,
+                R.styleable.MovingImageView, defStyle, 0);
+
+        try {
+            setMaxRelativeSize(attributes.getFloat(R.styleable.MovingImageView_miv_max_relative_size, 3.0f));
+            setMinRelativeOffset(attributes.getFloat(R.styleable.MovingImageView_miv_min_relative_offset, 0.2f));
+            setSpeed(attributes.getInt(R.styleable.MovingImageView_miv_speed, 50));
+        } finally {
+            attributes.recycle();
+        }
+    }
+
+    /**
+     * Draws while the <code>SurfaceView</code> surface exists.
+     *
+     * @param holder surface holder.
+     */
+    void attach(SurfaceHolder holder) {
+        holder.addCallback(new SurfaceHolder.Callback() {
+            @Override
+            public void surfaceCreated(SurfaceHolder holder) {
+                //size comes on surfaceChanged
+            }
+
+            @Override
+            public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+                start(width, height);
+            }
+
+            @Override
+            public void surfaceDestroyed(SurfaceHolder holder) {
+                //surface can't be used after this
+                renderer.stop();
+            }
+        });
+    }
+
+    /**
+     * Draws while the <code>TextureView</code> surface texture exists.
+     *
+     * @param view texture view.
+     */
+    void attach(TextureView view) {
+        view.setSurfaceTextureListener(new TextureView.SurfaceTextureListener() {
+            @Override
+            public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
+                start(width, height);
+            }
+
+            @Override
+            public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
+                renderer.setSize(width, height);
+                loadSource();
+            }
+
+            @Override
+            public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
+                renderer.stop();
+                return true;
+            }
+
+            @Override
+            public void onSurfaceTextureUpdated(SurfaceTexture surface) {
+                //nothing to do
+            }
+        });
+    }
+
+    private void start(int width, int height) {
+        renderer.start(target, width, height);
+        loadSource();
+    }
+
+    /**
+     * Decodes the image in background, sampled down to the size it's shown.
+     *
+     * @param resId image resource.
+     */
+    public void setImageResource(int resId) {
+        setImageSource(resId, null);
+    }
+
+    /**
+     * Decodes the image in background, sampled down to the size it's shown.
+     *
+     * @param uri image uri.
+     */
+    public void setImageURI(Uri uri) {
+        setImageSource(0, uri);
+    }
+
+    public void setImageBitmap(Bitmap bm) {
+        sourceResId = 0;
+        sourceUri = null;
+        pendingRequest = null;
+        renderer.setBitmap(bm, (bm != null) ? bm.getWidth() : 0, (bm != null) ? bm.getHeight() : 0);
+    }
+
+    private void setImageSource(int resId, Uri uri) {
+        sourceResId = resId;
+        sourceUri = uri;
+        sampleSize = 0;
+        loadSource();
+    }
+
+    private void loadSource() {
+        if (sourceResId == 0 && sourceUri == null)
+            return;
+
+        int w = renderer.getWidth();
+        int h = renderer.getHeight();
+        if (w <= 0 || h <= 0)
+            return;
+
+        pendingRequest = new MovingImageLoader.Request(sourceResId, sourceUri, w, h,
+                renderer.getMaxRelativeSize(), renderer.getMinRelativeOffset(), null, false, null, sampleSize, 1);
+        MovingImageLoader.load(context, pendingRequest, loaderCallback);
+    }
+
+    public float getMaxRelativeSize() {
+        return renderer.getMaxRelativeSize();
+    }
+
+    public void setMaxRelativeSize(float max) {
+        renderer.setMaxRelativeSize(max);
+    }
+
+    public float getMinRelativeOffset() {
+        return renderer.getMinRelativeOffset();
+    }
+
+    public void setMinRelativeOffset(float min) {
+        renderer.setMinRelativeOffset(min);
+    }
+
+    public int getSpeed() {
+        return renderer.getSpeed();
+    }
+
+    public void setSpeed(int speed) {
+        renderer.setSpeed(speed);
+    }
+
+    /**
+     * Sets the interpolator for each path segment, called on the render thread.
+     *
+     * @param interpolator segment interpolator.
+     */
+    public void setInterpolator(Interpolator interpolator) {
+        renderer.setInterpolator(interpolator);
+    }
+
+    /**
+     * Moves along a custom movement instead of the one picked by the layout.
+     *
+     * @param path normalized movement, null for the layout one.
+     */
+    public void setMovementPath(MovementPath path) {
+        renderer.setMovementPath(path);
+    }
+
+    /**
+     * @param color color drawn under the image, black by default.
+     */
+    public void setClearColor(int color) {
+        renderer.setClearColor(color);
+    }
+
+    public void pause() {
+        renderer.pause();
+    }
+
+    public void resume() {
+        renderer.resume();
+    }
+
+    public boolean isPaused() {
+        return renderer.isPaused();
+    }
+
+}
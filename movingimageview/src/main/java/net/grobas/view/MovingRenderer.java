@@ -0,0 +1,419 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.view;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.view.Choreographer;
+import android.view.animation.Interpolator;
+
+import net.grobas.animation.MovingInterpolator;
+import net.grobas.geometry.EasingTable;
+import net.grobas.geometry.MovementPath;
+import net.grobas.geometry.MovingLayout;
+import net.grobas.geometry.MovingPath;
+
+/**
+ * Draws a moving image on a surface from its own thread, so a busy main thread doesn't
+ * drop frames. Layout and movement follow the same rules as <code>MovingImageView</code>.
+ * Setters are called on main thread; everything they touch is guarded by a lock the
+ * render thread only holds to copy the frame state. Drawing holds a surface lock instead,
+ * so setters never wait for a buffer.
+ */
+final class MovingRenderer {
+
+    //frame delay without Choreographer
+    private static final long FRAME_DELAY = 16;
+    private static final long NANOS_PER_MS = 1000000L;
+
+    /**
+     * Surface that can be drawn from any thread.
+     */
+    interface Target {
+
+        Canvas lockCanvas();
+
+        void unlockCanvasAndPost(Canvas canvas);
+    }
+
+    private final Object lock = new Object();
+    //held while drawing on the surface
+    private final Object surfaceLock = new Object();
+
+    //guarded vars, set on main thread
+    private Target target;
+    private int width, height;
+    private Bitmap bitmap;
+    private float imageWidth, imageHeight;
+    private float maxRelativeSize = 3f, minRelativeOffset = 0.2f;
+    private int mSpeed = 50;
+    private Interpolator mInterpolator = MovingInterpolator.ACCELERATE_DECELERATE;
+    private MovementPath movementPath;
+    private int clearColor = Color.BLACK;
+    private long pausedTime = -1;
+    private boolean dirty;
+    private boolean frameScheduled;
+    private HandlerThread thread;
+    private Handler handler;
+
+    //render thread vars, frame state is copied from the guarded one
+    private Bitmap frameBitmap;
+    private int frameClearColor;
+    private Interpolator frameInterpolator;
+    private int frameWidth, frameHeight;
+    private final MovingLayout layout = new MovingLayout();
+    private final MovingPath mPath = new MovingPath();
+    private final Matrix baseMatrix = new Matrix();
+    private final Matrix drawMatrix = new Matrix();
+    private final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final float[] mPosition = new float[2];
+    private long duration;
+    private long startTime = -1;
+    private Object frameCallback;
+
+    private final Runnable frameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            doFrame(System.nanoTime());
+        }
+    };
+
+    private final Runnable postFrameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (lock) {
+                postFrame();
+            }
+        }
+    };
+
+    /**
+     * Surface is ready, starts the render thread.
+     *
+     * @param target surface to draw on.
+     * @param w      surface width.
+     * @param h      surface height.
+     */
+    void start(Target target, int w, int h) {
+        synchronized (lock) {
+            if (thread == null) {
+                thread = new HandlerThread("MovingRenderer", Process.THREAD_PRIORITY_DISPLAY);
+                thread.start();
+                handler = new Handler(thread.getLooper());
+                frameScheduled = false;
+            }
+            this.target = target;
+        }
+        setSize(w, h);
+    }
+
+    void setSize(int w, int h) {
+        synchronized (lock) {
+            width = w;
+            height = h;
+            invalidate();
+        }
+    }
+
+    int getWidth() {
+        synchronized (lock) {
+            return width;
+        }
+    }
+
+    int getHeight() {
+        synchronized (lock) {
+            return height;
+        }
+    }
+
+    /**
+     * Surface is going away. Returns once no frame is being drawn on it.
+     */
+    void stop() {
+        synchronized (lock) {
+            target = null;
+            handler = null;
+            if (thread != null) {
+                thread.quit();
+                thread = null;
+            }
+        }
+        synchronized (surfaceLock) {
+            //waits for a frame being drawn, next ones see no target
+        }
+    }
+
+    /**
+     * @param bm image, drawn scaled to the logical image size.
+     * @param w  logical image width.
+     * @param h  logical image height.
+     */
+    void setBitmap(Bitmap bm, float w, float h) {
+        synchronized (lock) {
+            bitmap = bm;
+            imageWidth = w;
+            imageHeight = h;
+            invalidate();
+        }
+    }
+
+    float getMaxRelativeSize() {
+        synchronized (lock) {
+            return maxRelativeSize;
+        }
+    }
+
+    void setMaxRelativeSize(float max) {
+        synchronized (lock) {
+            maxRelativeSize = max;
+            invalidate();
+        }
+    }
+
+    float getMinRelativeOffset() {
+        synchronized (lock) {
+            return minRelativeOffset;
+        }
+    }
+
+    void setMinRelativeOffset(float min) {
+        synchronized (lock) {
+            minRelativeOffset = min;
+            invalidate();
+        }
+    }
+
+    int getSpeed() {
+        synchronized (lock) {
+            return mSpeed;
+        }
+    }
+
+    void setSpeed(int speed) {
+        synchronized (lock) {
+            mSpeed = speed;
+            invalidate();
+        }
+    }
+
+    void setInterpolator(Interpolator interpolator) {
+        synchronized (lock) {
+            mInterpolator = interpolator;
+        }
+    }
+
+    void setMovementPath(MovementPath path) {
+        synchronized (lock) {
+            movementPath = path;
+            invalidate();
+        }
+    }
+
+    void setClearColor(int color) {
+        synchronized (lock) {
+            clearColor = color;
+            invalidate();
+        }
+    }
+
+    void pause() {
+        synchronized (lock) {
+            if (pausedTime < 0)
+                pausedTime = (startTime < 0) ? 0 : System.nanoTime() - startTime;
+        }
+    }
+
+    void resume() {
+        synchronized (lock) {
+            if (pausedTime < 0)
+                return;
+
+            if (startTime >= 0)
+                startTime = System.nanoTime() - pausedTime;
+            pausedTime = -1;
+            requestFrame();
+        }
+    }
+
+    boolean isPaused() {
+        synchronized (lock) {
+            return pausedTime >= 0;
+        }
+    }
+
+    /**
+     * Layout has to be computed again before next frame. Lock held.
+     */
+    private void invalidate() {
+        dirty = true;
+        requestFrame();
+    }
+
+    /**
+     * Lock held.
+     */
+    private void requestFrame() {
+        if (frameScheduled || handler == null)
+            return;
+
+        frameScheduled = true;
+        handler.post(postFrameRunnable);
+    }
+
+    /**
+     * Waits for next vsync on the render thread. Lock held.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void postFrame() {
+        if (handler == null)
+            return;
+
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+            handler.postDelayed(frameRunnable, FRAME_DELAY);
+            return;
+        }
+        if (frameCallback == null) {
+            frameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    MovingRenderer.this.doFrame(frameTimeNanos);
+                }
+            };
+        }
+        Choreographer.getInstance().postFrameCallback((Choreographer.FrameCallback) frameCallback);
+    }
+
+    /**
+     * Copies the frame state, draws without the state lock and asks for the next frame
+     * while the image moves.
+     */
+    private void doFrame(long frameTimeNanos) {
+        Target frameTarget;
+        long time;
+        synchronized (lock) {
+            //a frame left on a quit thread
+            if (Thread.currentThread() != thread)
+                return;
+
+            frameScheduled = false;
+            if (target == null)
+                return;
+
+            if (dirty)
+                updateLayout();
+            if (startTime < 0)
+                startTime = frameTimeNanos;
+            time = (pausedTime >= 0) ? pausedTime : frameTimeNanos - startTime;
+            frameTarget = target;
+            frameBitmap = bitmap;
+            frameClearColor = clearColor;
+            frameInterpolator = mInterpolator;
+            frameWidth = width;
+            frameHeight = height;
+        }
+
+        boolean moving;
+        synchronized (surfaceLock) {
+            //surface destroyed or thread quit since the state was copied
+            synchronized (lock) {
+                if (target != frameTarget || Thread.currentThread() != thread)
+                    return;
+            }
+            moving = draw(frameTarget, time);
+        }
+
+        synchronized (lock) {
+            if (moving && pausedTime < 0 && !frameScheduled && Thread.currentThread() == thread) {
+                frameScheduled = true;
+                postFrame();
+            }
+        }
+    }
+
+    private void updateLayout() {
+        dirty = false;
+        if (bitmap == null || !layout.compute(imageWidth, imageHeight, width, height,
+                maxRelativeSize, minRelativeOffset))
+            return;
+
+        float scale = layout.getScale() * imageWidth / bitmap.getWidth();
+        baseMatrix.setTranslate(layout.getTranslateX(), layout.getTranslateY());
+        baseMatrix.preScale(scale, scale);
+        mPath.setZoomLength((float) Math.sqrt(width * width + height * height) / 2f);
+        if (movementPath != null)
+            mPath.set(movementPath, layout.getPathWidth(), layout.getPathHeight());
+        else
+            mPath.set(layout.getMovementType(), layout.getPathWidth(), layout.getPathHeight());
+        duration = MovingPath.getDuration(mPath.getLength(), mSpeed);
+    }
+
+    /**
+     * Surface lock held. Uses the copied frame state only.
+     *
+     * @param target surface to draw on.
+     * @param time   play time in ns.
+     * @return true if the image moves, next frame is needed.
+     */
+    private boolean draw(Target target, long time) {
+        Canvas canvas = target.lockCanvas();
+        if (canvas == null)
+            return false;
+
+        boolean moving = false;
+        try {
+            canvas.drawColor(frameClearColor);
+            if (frameBitmap == null || !layout.isValid())
+                return false;
+
+            moving = mPath.size() > 0 && duration > 0;
+            float zoom = 1f;
+            if (moving) {
+                float fraction = ((time / NANOS_PER_MS) % duration) / (float) duration;
+                int index = mPath.getSegment(fraction);
+                float segmentFraction = mPath.getSegmentFraction(index, fraction);
+                EasingTable easing = mPath.getEasing(index);
+                if (easing != null)
+                    segmentFraction = easing.get(segmentFraction);
+                else if (frameInterpolator != null)
+                    segmentFraction = frameInterpolator.getInterpolation(segmentFraction);
+                mPath.getPoint(index, segmentFraction, mPosition);
+                zoom = mPath.hasZoom() ? mPath.getZoom(index, segmentFraction) : 1f;
+            } else {
+                mPosition[0] = 0;
+                mPosition[1] = 0;
+            }
+            drawMatrix.set(baseMatrix);
+            drawMatrix.postTranslate(-mPosition[0], -mPosition[1]);
+            if (zoom != 1f)
+                drawMatrix.postScale(zoom, zoom, frameWidth / 2f, frameHeight / 2f);
+            canvas.drawBitmap(frameBitmap, drawMatrix, paint);
+        } finally {
+            target.unlockCanvasAndPost(canvas);
+        }
+        return moving;
+    }
+
+}
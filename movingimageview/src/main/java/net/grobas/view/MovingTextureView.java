@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.view;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.util.AttributeSet;
+import android.view.TextureView;
+
+/**
+ * <code>TextureView</code> sibling of <code>MovingImageView</code>. Same scaling and movement
+ * rules, but frames are drawn from a render thread, a busy main thread doesn't stop the
+ * motion. Needs a hardware accelerated window. Image and movement are set on its
+ * {@link MovingRenderController}.
+ */
+public class MovingTextureView extends TextureView {
+
+    private final MovingRenderController controller;
+
+    public MovingTextureView(Context context) {
+        this(context, null);
+    }
+
+    public MovingTextureView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public MovingTextureView(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+
+        controller = new MovingRenderController(context, attrs, defStyle, new MovingRenderer.Target() {
+            @Override
+            public Canvas lockCanvas() {
+                return MovingTextureView.this.lockCanvas();
+            }
+
+            @Override
+            public void unlockCanvasAndPost(Canvas canvas) {
+                MovingTextureView.this.unlockCanvasAndPost(canvas);
+            }
+        });
+        setOpaque(true);
+        controller.attach(this);
+    }
+
+    public MovingRenderController getController() {
+        return controller;
+    }
+
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.view;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * Drawable for very large images. Only tiles intersecting the canvas clip, plus a
+ * prefetch margin on travel direction, are decoded with <code>BitmapRegionDecoder</code>
+ * and kept on a bounded LRU cache. A small preview covers tiles still loading.
+ * Must be drawn and released on main thread.
+ */
+final class MovingTileDrawable extends Drawable {
+
+    //tile size on drawable pixels
+    static final int TILE_SIZE = 512;
+    private static final int MIN_CACHED_TILES = 8;
+
+    private final BitmapRegionDecoder decoder;
+    private final Bitmap preview;
+    private final int sampleSize;
+    private final int width, height;
+    private final int columns, rows;
+    private final Handler handler;
+    private final Paint paint;
+
+    //tile cache, keys are row * columns + column
+    private int[] keys;
+    private Bitmap[] tiles;
+    private long[] lastUsed;
+    private int cached;
+    private long drawCount;
+
+    //tiles being decoded
+    private int[] loading;
+    private int loadingCount;
+
+    private float directionX, directionY;
+    private boolean released;
+
+    //draw helpers
+    private final Rect clip = new Rect();
+    private final Rect src = new Rect();
+    private final Rect dst = new Rect();
+
+    /**
+     * @param decoder    region decoder, owned by this drawable.
+     * @param preview    low resolution full image, can be null.
+     * @param sampleSize sample size for tiles.
+     */
+    MovingTileDrawable(BitmapRegionDecoder decoder, Bitmap preview, int sampleSize) {
+        this.decoder = decoder;
+        this.preview = preview;
+        this.sampleSize = sampleSize;
+        width = decoder.getWidth() / sampleSize;
+        height = decoder.getHeight() / sampleSize;
+        columns = (width + TILE_SIZE - 1) / TILE_SIZE;
+        rows = (height + TILE_SIZE - 1) / TILE_SIZE;
+        handler = new Handler(Looper.getMainLooper());
+        paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        keys = new int[MIN_CACHED_TILES];
+        tiles = new Bitmap[MIN_CACHED_TILES];
+        lastUsed = new long[MIN_CACHED_TILES];
+        loading = new int[MIN_CACHED_TILES];
+    }
+
+    /**
+     * Sets travel direction, tiles on that side are prefetched.
+     *
+     * @param x horizontal direction sign.
+     * @param y vertical direction sign.
+     */
+    void setDirection(float x, float y) {
+        directionX = x;
+        directionY = y;
+    }
+
+    /**
+     * Recycles decoder and tiles.
+     */
+    void release() {
+        released = true;
+        handler.removeCallbacksAndMessages(null);
+        for (int i = 0; i < cached; i++) {
+            tiles[i].recycle();
+            tiles[i] = null;
+        }
+        cached = 0;
+        if (preview != null)
+            preview.recycle();
+        //pending decodes check released flag before touching the decoder
+        synchronized (decoder) {
+            decoder.recycle();
+        }
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return width;
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return height;
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        if (released || !canvas.getClipBounds(clip))
+            return;
+
+        drawCount++;
+        int firstColumn = Math.max(0, clip.left / TILE_SIZE);
+        int lastColumn = Math.min(columns - 1, (clip.right - 1) / TILE_SIZE);
+        int firstRow = Math.max(0, clip.top / TILE_SIZE);
+        int lastRow = Math.min(rows - 1, (clip.bottom - 1) / TILE_SIZE);
+        ensureCapacity((lastColumn - firstColumn + 2) * (lastRow - firstRow + 2) * 2);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                Bitmap tile = getTile(row * columns + column);
+                setTileRect(column, row, dst);
+                if (tile != null) {
+                    canvas.drawBitmap(tile, null, dst, paint);
+                } else {
+                    if (preview != null) {
+                        src.set(dst.left * preview.getWidth() / width, dst.top * preview.getHeight() / height,
+                                dst.right * preview.getWidth() / width, dst.bottom * preview.getHeight() / height);
+                        canvas.drawBitmap(preview, src, dst, paint);
+                    }
+                    requestTile(column, row);
+                }
+            }
+        }
+
+        //prefetch the next column and row on travel direction
+        int prefetchColumn = (directionX > 0) ? lastColumn + 1 : (directionX < 0) ? firstColumn - 1 : -1;
+        int prefetchRow = (directionY > 0) ? lastRow + 1 : (directionY < 0) ? firstRow - 1 : -1;
+        if (prefetchColumn >= 0 && prefetchColumn < columns) {
+            for (int row = firstRow; row <= lastRow; row++)
+                prefetchTile(prefetchColumn, row);
+        }
+        if (prefetchRow >= 0 && prefetchRow < rows) {
+            for (int column = firstColumn; column <= lastColumn; column++)
+                prefetchTile(column, prefetchRow);
+        }
+    }
+
+    private void setTileRect(int column, int row, Rect rect) {
+        rect.set(column * TILE_SIZE, row * TILE_SIZE, Math.min(width, (column + 1) * TILE_SIZE),
+                Math.min(height, (row + 1) * TILE_SIZE));
+    }
+
+    private void prefetchTile(int column, int row) {
+        if (getTile(row * columns + column) == null)
+            requestTile(column, row);
+    }
+
+    private Bitmap getTile(int key) {
+        for (int i = 0; i < cached; i++) {
+            if (keys[i] == key) {
+                lastUsed[i] = drawCount;
+                return tiles[i];
+            }
+        }
+        return null;
+    }
+
+    private void putTile(int key, Bitmap tile) {
+        int index;
+        if (cached < keys.length) {
+            index = cached++;
+        } else {
+            //evict least recently used
+            index = 0;
+            for (int i = 1; i < cached; i++) {
+                if (lastUsed[i] < lastUsed[index])
+                    index = i;
+            }
+            tiles[index].recycle();
+        }
+        keys[index] = key;
+        tiles[index] = tile;
+        lastUsed[index] = drawCount;
+    }
+
+    private void requestTile(int column, int row) {
+        final int key = row * columns + column;
+        for (int i = 0; i < loadingCount; i++) {
+            if (loading[i] == key)
+                return;
+        }
+        if (loadingCount == loading.length) {
+            int[] newLoading = new int[loading.length * 2];
+            System.arraycopy(loading, 0, newLoading, 0, loadingCount);
+            loading = newLoading;
+        }
+        loading[loadingCount++] = key;
+
+        final Rect region = new Rect();
+        setTileRect(column, row, region);
+        region.set(region.left * sampleSize, region.top * sampleSize,
+                region.right * sampleSize, region.bottom * sampleSize);
+        MovingImageLoader.execute(new Runnable() {
+            @Override
+            public void run() {
+                final Bitmap tile = decodeTile(region);
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onTileLoaded(key, tile);
+                    }
+                });
+            }
+        });
+    }
+
+    private Bitmap decodeTile(Rect region) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        options.inPreferredConfig = (preview != null && preview.getConfig() != null) ?
+                preview.getConfig() : Bitmap.Config.ARGB_8888;
+        synchronized (decoder) {
+            if (released || decoder.isRecycled())
+                return null;
+            try {
+                return decoder.decodeRegion(region, options);
+            } catch (OutOfMemoryError e) {
+                return null;
+            }
+        }
+    }
+
+    private void onTileLoaded(int key, Bitmap tile) {
+        for (int i = 0; i < loadingCount; i++) {
+            if (loading[i] == key) {
+                loading[i] = loading[--loadingCount];
+                break;
+            }
+        }
+        if (tile == null)
+            return;
+        if (released) {
+            tile.recycle();
+            return;
+        }
+        putTile(key, tile);
+        invalidateSelf();
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= keys.length)
+            return;
+
+        int[] newKeys = new int[size];
+        Bitmap[] newTiles = new Bitmap[size];
+        long[] newLastUsed = new long[size];
+        System.arraycopy(keys, 0, newKeys, 0, cached);
+        System.arraycopy(tiles, 0, newTiles, 0, cached);
+        System.arraycopy(lastUsed, 0, newLastUsed, 0, cached);
+        keys = newKeys;
+        tiles = newTiles;
+        lastUsed = newLastUsed;
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        paint.setAlpha(alpha);
+        invalidateSelf();
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        paint.setColorFilter(colorFilter);
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.animation;
+
+/**
+ * Controlled clock for tests. Drives a path engine animator frame by frame,
+ * the same way the shared ticker does.
+ */
+public final class MovingTestClock {
+
+    private MovingTestClock() {
+    }
+
+    /**
+     * Runs one frame.
+     *
+     * @param animator path engine animator.
+     * @param playTime time since start in ms, including start delay.
+     * @return false when the animation has ended.
+     */
+    public static boolean frame(MovingViewAnimator animator, long playTime) {
+        return animator.onTickerFrame(playTime);
+    }
+
+    /**
+     * Runs frames at a fixed step from 0 to the given time.
+     *
+     * @param animator path engine animator.
+     * @param step     frame length in ms.
+     * @param end      last play time in ms.
+     * @return frames run.
+     */
+    public static int run(MovingViewAnimator animator, long step, long end) {
+        int frames = 0;
+        for (long time = 0; time <= end; time += step) {
+            frame(animator, time);
+            frames++;
+        }
+        return frames;
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.animation;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.view.View;
+import android.view.animation.LinearInterpolator;
+
+import net.grobas.geometry.MovingPath;
+import net.grobas.view.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Shared ticker frame timing. Frames run on a controlled clock over many loops, each one
+ * must land on the path position of its play time, so loop boundaries neither skip
+ * nor repeat a frame.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class MovingViewAnimatorLoopTest {
+
+    //800px path at 500px/s, 1600ms loops
+    private static final float OFFSET = 400f;
+    private static final int SPEED = 500;
+    private static final int LOOPS = 20;
+    private static final float DELTA = 0.01f;
+
+    private MovingViewAnimator animator;
+    private final MovingPath path = new MovingPath();
+    private final float[] expected = new float[2];
+
+    //recorded by frame
+    private int frame;
+    private final List<Float> positions = new ArrayList<>();
+    private final List<Integer> repeatFrames = new ArrayList<>();
+    private int ends;
+
+    @Before
+    public void setUp() {
+        //frames only come from the test clock
+        Robolectric.getForegroundThreadScheduler().pause();
+        animator = new MovingViewAnimator(new View(RuntimeEnvironment.application),
+                MovingViewAnimator.HORIZONTAL_MOVE, OFFSET, 0);
+        animator.setSharedTicker(true);
+        animator.setInterpolator(new LinearInterpolator());
+        animator.setSpeed(SPEED);
+        animator.setOnPositionChangeListener(new MovingViewAnimator.OnPositionChangeListener() {
+            @Override
+            public void onPositionChanged(float x, float y) {
+                positions.add(x);
+            }
+        });
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationRepeat(Animator animation) {
+                repeatFrames.add(frame);
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                ends++;
+            }
+        });
+        path.set(MovingPath.HORIZONTAL, OFFSET, 0);
+    }
+
+    @Test
+    public void framesOnLoopBoundaries() {
+        //loops are exactly 100 frames long
+        assertSeamless(16, ValueAnimator.INFINITE);
+    }
+
+    @Test
+    public void framesAcrossLoopBoundaries() {
+        //boundaries fall inside frames, at a different point on each loop
+        assertSeamless(17, ValueAnimator.INFINITE);
+    }
+
+    @Test
+    public void countedLoops() {
+        assertSeamless(17, LOOPS);
+    }
+
+    @Test
+    public void countedLoopsEndOnce() {
+        animator.setRepetition(3);
+        animator.start();
+        long duration = animator.getDuration();
+        long time = 0;
+        while (MovingTestClock.frame(animator, time)) {
+            frame++;
+            time += 16;
+        }
+
+        //ends on the first frame after the third loop, at the path end
+        assertEquals((3 * duration + 15) / 16, frame);
+        assertEquals(frame + 1, positions.size());
+        assertEquals(2, repeatFrames.size());
+        assertEquals(1, ends);
+        assertEquals(0, animator.getRemainingRepetitions());
+        path.getPosition(1f, expected);
+        assertEquals(expected[0], positions.get(positions.size() - 1), DELTA);
+    }
+
+    /**
+     * Runs LOOPS loops at a fixed frame step, checking every frame position and
+     * the frame of every loop repeat.
+     *
+     * @param step        frame length in ms.
+     * @param repetitions loop count, or INFINITE.
+     */
+    private void assertSeamless(long step, int repetitions) {
+        if (repetitions != ValueAnimator.INFINITE)
+            animator.setRepetition(repetitions);
+        animator.start();
+        long duration = animator.getDuration();
+        long end = LOOPS * duration - 1;
+        for (long time = 0; time <= end; time += step) {
+            assertTrue(MovingTestClock.frame(animator, time));
+            frame++;
+        }
+
+        //one position per frame, none missed or repeated
+        assertEquals(frame, positions.size());
+        for (int i = 0; i < frame; i++) {
+            long time = i * step;
+            path.getPosition((time % duration) / (float) duration, expected);
+            assertEquals("frame " + i + " at " + time + "ms", expected[0], positions.get(i), DELTA);
+        }
+
+        //each repeat on the first frame of its loop
+        assertEquals(LOOPS - 1, repeatFrames.size());
+        for (int loop = 1; loop < LOOPS; loop++) {
+            long firstFrame = (loop * duration + step - 1) / step;
+            assertEquals("loop " + loop, firstFrame, (long) repeatFrames.get(loop - 1));
+        }
+        assertEquals(0, ends);
+        if (repetitions != ValueAnimator.INFINITE)
+            assertEquals(1, animator.getRemainingRepetitions());
+    }
+
+}
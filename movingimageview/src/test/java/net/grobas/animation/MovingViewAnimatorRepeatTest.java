@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.animation;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.view.View;
+import android.view.animation.LinearInterpolator;
+
+import net.grobas.view.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowChoreographer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Native repeat of the path engine animator. A real <code>ValueAnimator</code> runs on
+ * the main looper, frame by frame, so the repeat count, the loop boundaries and the
+ * end come from the animator itself.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class MovingViewAnimatorRepeatTest {
+
+    //400px path at 1000px/s, 400ms loops
+    private static final float OFFSET = 200f;
+    private static final int SPEED = 1000;
+    private static final int LOOPS = 5;
+    private static final long FRAME = 16;
+    //the animation ends long before this
+    private static final int MAX_FRAMES = 1000;
+    private static final float DELTA = 0.001f;
+
+    private MovingViewAnimator animator;
+    private ValueAnimator valueAnimator;
+
+    //recorded by frame
+    private final List<Float> fractions = new ArrayList<>();
+    private final List<Integer> repeatFrames = new ArrayList<>();
+    private int ends;
+
+    private final ValueAnimator.AnimatorUpdateListener fractionListener = new ValueAnimator.AnimatorUpdateListener() {
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            fractions.add(animation.getAnimatedFraction());
+        }
+    };
+
+    @Before
+    public void setUp() {
+        //animation frames only run when the test moves the main looper clock
+        Robolectric.getForegroundThreadScheduler().pause();
+        ShadowChoreographer.setPostCallbackDelay((int) FRAME);
+        animator = new MovingViewAnimator(new View(RuntimeEnvironment.application),
+                MovingViewAnimator.HORIZONTAL_MOVE, OFFSET, 0);
+        animator.setPathEngineEnabled(true);
+        animator.setInterpolator(new LinearInterpolator());
+        animator.setSpeed(SPEED);
+        animator.setRepetition(LOOPS);
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationStart(Animator animation) {
+                //a single value animator runs every loop
+                if (animation == valueAnimator)
+                    return;
+                valueAnimator = (ValueAnimator) animation;
+                valueAnimator.addUpdateListener(fractionListener);
+            }
+
+            @Override
+            public void onAnimationRepeat(Animator animation) {
+                repeatFrames.add(fractions.size());
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                ends++;
+            }
+        });
+    }
+
+    @Test
+    public void countedLoops() {
+        runToEnd();
+
+        assertEquals(LOOPS - 1, repeatFrames.size());
+        assertEquals(LOOPS - 1, valueAnimator.getRepeatCount());
+        assertEquals(0, animator.getRemainingRepetitions());
+        //last frame is the path end
+        assertEquals(1f, fractions.get(fractions.size() - 1), DELTA);
+    }
+
+    @Test
+    public void endsOnce() {
+        runToEnd();
+        //nothing is posted to start the next loop
+        Robolectric.getForegroundThreadScheduler().advanceBy(10 * valueAnimator.getDuration());
+
+        assertEquals(1, ends);
+        assertEquals(0, animator.getRemainingRepetitions());
+    }
+
+    @Test
+    public void framesAcrossRepeats() {
+        runToEnd();
+
+        //frame advance inside loops, without the start and end frames
+        float min = Float.MAX_VALUE;
+        float max = 0;
+        for (int i = 2; i < fractions.size() - 1; i++) {
+            if (repeatFrames.contains(i))
+                continue;
+            float step = fractions.get(i) - fractions.get(i - 1);
+            min = Math.min(min, step);
+            max = Math.max(max, step);
+        }
+        assertTrue("frames advance", min > 0);
+
+        //the repeat frame goes on from the frame time, nothing skipped or replayed
+        for (int frame : repeatFrames) {
+            float step = fractions.get(frame) + 1f - fractions.get(frame - 1);
+            assertTrue("repeat on frame " + frame + " advances " + step + ", loops advance " + min + " to " + max,
+                    step >= min - DELTA && step <= max + DELTA);
+        }
+    }
+
+    /**
+     * Runs frames until the animation ends.
+     */
+    private void runToEnd() {
+        animator.start();
+        for (int frame = 0; frame < MAX_FRAMES && ends == 0; frame++)
+            Robolectric.getForegroundThreadScheduler().advanceBy(FRAME);
+        assertEquals(1, ends);
+    }
+
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.animation;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.app.Activity;
+import android.view.View;
+
+import net.grobas.view.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowChoreographer;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Rebuild and allocation budgets of <code>MovingViewAnimator</code>. Object animator
+ * loops run on the main looper, shared ticker frames on a controlled clock.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class MovingViewAnimatorTest {
+
+    //200px path at 1000px/s, 200ms loops
+    private static final float OFFSET = 100f;
+    private static final int SPEED = 1000;
+    private static final long FRAME = 16;
+    private static final int LOOPS = 100;
+    //the loops end long before this
+    private static final int MAX_FRAMES = 100000;
+    //less than one small object every loop, measuring itself allocates a bit
+    private static final long ALLOCATION_BUDGET = 512;
+
+    private MovingViewAnimator animator;
+    private float lastX;
+    private int repeats;
+
+    private final MovingViewAnimator.OnPositionChangeListener positionListener =
+            new MovingViewAnimator.OnPositionChangeListener() {
+                @Override
+                public void onPositionChanged(float x, float y) {
+                    lastX = x;
+                }
+            };
+
+    //quality the policy answers with
+    private int quality = MovingQualityPolicy.QUALITY_FULL;
+
+    private final MovingQualityPolicy policy = new MovingQualityPolicy() {
+        @Override
+        public int getQuality(boolean powerSave, int thermalStatus, float jankRate, boolean focused) {
+            return quality;
+        }
+    };
+
+    private final MovingQualityPolicy.DeviceState deviceState = new MovingQualityPolicy.DeviceState() {
+        @Override
+        public boolean isPowerSaveMode() {
+            return false;
+        }
+
+        @Override
+        public int getThermalStatus() {
+            return MovingQualityPolicy.THERMAL_STATUS_NONE;
+        }
+    };
+
+    @Before
+    public void setUp() {
+        //frames only run when the test moves the clock
+        Robolectric.getForegroundThreadScheduler().pause();
+        ShadowChoreographer.setPostCallbackDelay((int) FRAME);
+        //loop restarts are posted, the view has to be attached
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        View view = new View(activity);
+        activity.setContentView(view);
+        animator = new MovingViewAnimator(view, MovingViewAnimator.HORIZONTAL_MOVE, OFFSET, 0);
+        animator.setSpeed(SPEED);
+        animator.setMetricsEnabled(true);
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationRepeat(Animator animation) {
+                repeats++;
+            }
+        });
+    }
+
+    @Test
+    public void startStopDoesNotRebuild() {
+        animator.start();
+        animator.stop();
+        animator.start();
+        animator.cancel();
+        animator.start();
+        assertEquals(0, animator.getMetrics().getRebuilds());
+    }
+
+    @Test
+    public void settersDoNotRebuild() {
+        animator.start();
+        animator.setSpeed(SPEED / 2);
+        animator.setStartDelay(100);
+        animator.setRepetition(3);
+        animator.setRepetition(-1);
+        assertEquals(0, animator.getMetrics().getRebuilds());
+    }
+
+    @Test
+    public void pauseResumeDoesNotRebuild() {
+        animator.start();
+        animator.pause();
+        animator.resume();
+        animator.setPathEngineEnabled(true);
+        animator.resetMetrics();
+        animator.pause();
+        animator.resume();
+        assertEquals(0, animator.getMetrics().getRebuilds());
+    }
+
+    @Test
+    public void seekKeepsBackend() {
+        animator.start();
+        animator.seek(120);
+        assertEquals(120, animator.getPlayTime());
+        animator.pause();
+        animator.seek(50);
+        assertTrue(animator.isPaused());
+        assertEquals(50, animator.getPlayTime());
+        animator.resume();
+        assertFalse(animator.isPathEngineEnabled());
+        assertEquals(0, animator.getMetrics().getRebuilds());
+    }
+
+    @Test
+    public void qualityRoundTripKeepsBackend() {
+        animator.setQualityPolicy(policy, deviceState);
+        animator.start();
+        animator.seek(50);
+        quality = MovingQualityPolicy.QUALITY_LOW;
+        animator.updateQuality();
+        quality = MovingQualityPolicy.QUALITY_FULL;
+        animator.updateQuality();
+        assertFalse(animator.isPathEngineEnabled());
+        assertTrue(animator.isRunning());
+        //horizontal on both qualities, same path
+        assertEquals(50, animator.getPlayTime());
+    }
+
+    @Test
+    public void loopsDoNotRebuild() {
+        animator.start();
+        runLoops();
+        animator.stop();
+        //one reused restart per loop, the object animators are kept
+        assertEquals(LOOPS, repeats);
+        assertEquals(LOOPS, animator.getMetrics().getRestarts());
+        assertEquals(0, animator.getMetrics().getRebuilds());
+    }
+
+    @Test
+    public void nativeLoopsDoNotRebuild() {
+        animator.setPathEngineEnabled(true);
+        animator.resetMetrics();
+        animator.start();
+        runLoops();
+        animator.stop();
+        assertEquals(LOOPS, repeats);
+        assertEquals(0, animator.getMetrics().getRestarts());
+        assertEquals(0, animator.getMetrics().getRebuilds());
+    }
+
+    @Test
+    public void tickerLoopsDoNotRebuild() {
+        animator.setSharedTicker(true);
+        animator.resetMetrics();
+        animator.start();
+        int frames = MovingTestClock.run(animator, FRAME, LOOPS * animator.getDuration());
+        animator.stop();
+        assertEquals(frames, animator.getMetrics().getFrames());
+        assertEquals(0, animator.getMetrics().getRebuilds());
+    }
+
+    @Test
+    public void tickerFramesDoNotAllocate() {
+        animator.setSharedTicker(true);
+        animator.setOnPositionChangeListener(positionListener);
+        assertTickerFramesDoNotAllocate();
+    }
+
+    @Test
+    public void countedTickerLoopsDoNotAllocate() {
+        animator.setSharedTicker(true);
+        animator.setOnPositionChangeListener(positionListener);
+        animator.setRepetition(LOOPS);
+        assertTickerFramesDoNotAllocate();
+    }
+
+    /**
+     * Runs main looper frames until LOOPS loops have repeated.
+     */
+    private void runLoops() {
+        for (int frame = 0; frame < MAX_FRAMES && repeats < LOOPS; frame++)
+            Robolectric.getForegroundThreadScheduler().advanceBy(FRAME);
+    }
+
+    /**
+     * Second run is measured, the first one loads classes and warms up.
+     * Each run starts over, so loop callbacks happen on both.
+     */
+    private void assertTickerFramesDoNotAllocate() {
+        long end = LOOPS * animator.getDuration();
+        animator.start();
+        MovingTestClock.run(animator, FRAME, end);
+        animator.stop();
+
+        animator.start();
+        long start = getAllocatedBytes();
+        int frames = MovingTestClock.run(animator, FRAME, end);
+        long allocated = getAllocatedBytes() - start;
+        animator.stop();
+        assertTrue(allocated + " bytes allocated on " + frames + " frames over " + LOOPS + " loops",
+                allocated < ALLOCATION_BUDGET);
+        //last frame is the path end
+        assertEquals(0, lastX, 0.001f);
+    }
+
+    private static long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+}
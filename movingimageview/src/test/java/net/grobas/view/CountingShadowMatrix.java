@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.view;
+
+import android.graphics.Matrix;
+
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.shadows.ShadowMatrix;
+
+/**
+ * Counts <code>new Matrix()</code> calls.
+ */
+@Implements(Matrix.class)
+public class CountingShadowMatrix extends ShadowMatrix {
+
+    private static int created;
+
+    @Implementation
+    public void __constructor__() {
+        created++;
+    }
+
+    public static int getCreated() {
+        return created;
+    }
+
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright (C) 2014 Albert Grobas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grobas.view;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.widget.FrameLayout;
+
+import net.grobas.animation.MovingViewAnimator;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowChoreographer;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Rebuild and allocation budgets of <code>MovingImageView</code> on inflation, layout,
+ * image and animation changes. Animations run on the main looper, frame by frame.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21, shadows = CountingShadowMatrix.class)
+public class MovingImageViewTest {
+
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 300;
+    private static final long FRAME = 16;
+    private static final int LOOPS = 10;
+    //the loops end long before this
+    private static final int MAX_FRAMES = 100000;
+    //draw frames measured
+    private static final int FRAMES = 1000;
+    //less than one small object every hundred frames, measuring itself allocates a bit
+    private static final long ALLOCATION_BUDGET = 512;
+
+    private FrameLayout parent;
+    private MovingImageView view;
+    private MovingViewAnimator animator;
+    private int repeats;
+
+    private final Animator.AnimatorListener repeatListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationRepeat(Animator animation) {
+            repeats++;
+        }
+    };
+
+    @Before
+    public void setUp() {
+        //frames only run when the test moves the clock
+        Robolectric.getForegroundThreadScheduler().pause();
+        ShadowChoreographer.setPostCallbackDelay((int) FRAME);
+        //loop restarts are posted, the view has to be attached
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        parent = new FrameLayout(activity);
+        activity.setContentView(parent);
+        view = new MovingImageView(activity);
+        view.setAutoPause(false);
+        parent.addView(view, new FrameLayout.LayoutParams(WIDTH, HEIGHT));
+        view.setImageDrawable(createImage());
+        view.layout(0, 0, WIDTH, HEIGHT);
+        animator = view.getMovingAnimator();
+        animator.setMetricsEnabled(true);
+        animator.addListener(repeatListener);
+    }
+
+    @Test
+    public void firstLayoutBuildsOnce() {
+        MovingImageView other = new MovingImageView(RuntimeEnvironment.application);
+        other.getMovingAnimator().setMetricsEnabled(true);
+        other.setImageDrawable(createImage());
+        other.setMaxRelativeSize(2f);
+        other.setMinRelativeOffset(0.1f);
+        other.layout(0, 0, WIDTH, HEIGHT);
+        //several changes before the first frame end up on a single layout update
+        assertEquals(1, other.getMovingAnimator().getMetrics().getRebuilds());
+    }
+
+    @Test
+    public void inflateBuildsOnce() {
+        MovingImageView other = new MovingImageView(RuntimeEnvironment.application,
+                Robolectric.buildAttributeSet()
+                        .addAttribute(R.attr.miv_speed, "80")
+                        .addAttribute(R.attr.miv_max_relative_size, "2")
+                        .addAttribute(R.attr.miv_min_relative_offset, "0.1")
+                        .addAttribute(R.attr.miv_repetitions, "3")
+                        .build());
+        other.getMovingAnimator().setMetricsEnabled(true);
+        other.setImageDrawable(createImage());
+        other.layout(0, 0, WIDTH, HEIGHT);
+        assertEquals(1, other.getMovingAnimator().getMetrics().getRebuilds());
+        assertFalse(other.getMovingAnimator().isPathEngineEnabled());
+    }
+
+    @Test
+    public void startStopDoesNotRebuild() {
+        animator.stop();
+        animator.start();
+        animator.stop();
+        animator.start();
+        assertEquals(0, animator.getMetrics().getRebuilds());
+    }
+
+    @Test
+    public void layoutUpdateDoesNotRebuild() {
+        view.layout(0, 0, WIDTH, HEIGHT);
+        view.setMaxRelativeSize(view.getMaxRelativeSize());
+        view.setMinRelativeOffset(view.getMinRelativeOffset());
+        view.getMovingAnimator();
+        //same size image, same path
+        view.setImageDrawable(createImage());
+        view.getMovingAnimator();
+        assertEquals(0, animator.getMetrics().getRebuilds());
+    }
+
+    @Test
+    public void sameImageResourceDoesNotRebuild() {
+        view.setImageResource(android.R.drawable.ic_menu_gallery);
+        view.getMovingAnimator();
+        animator.resetMetrics();
+        view.setImageResource(android.R.drawable.ic_menu_gallery);
+        view.getMovingAnimator();
+        assertEquals(0, animator.getMetrics().getRebuilds());
+    }
+
+    @Test
+    public void speedDoesNotRebuild() {
+        animator.setSpeed(80);
+        animator.setSpeed(20);
+        assertEquals(0, animator.getMetrics().getRebuilds());
+    }
+
+    @Test
+    public void pauseResumeDoesNotRebuild() {
+        animator.pause();
+        animator.resume();
+        view.setAutoPause(true);
+        view.setAutoPause(false);
+        assertEquals(0, animator.getMetrics().getRebuilds());
+    }
+
+    @Test
+    public void sizeChangeRebuildsOnce() {
+        view.layout(0, 0, WIDTH / 2, HEIGHT);
+        view.getMovingAnimator();
+        assertEquals(1, animator.getMetrics().getRebuilds());
+    }
+
+    @Test
+    public void loopsDoNotRebuild() {
+        assertLoopsDoNotAllocate();
+        assertEquals(LOOPS, animator.getMetrics().getRestarts());
+        assertFalse(animator.isPathEngineEnabled());
+    }
+
+    @Test
+    public void customMovementBuildsOnce() {
+        animator.resetMetrics();
+        animator.addCustomMovement()
+                .addDiagonalMoveToDownRight()
+                .addHorizontalMoveToLeft()
+                .addVerticalMoveToUp()
+                .start();
+        assertEquals(1, animator.getMetrics().getRebuilds());
+        assertLoopsDoNotAllocate();
+    }
+
+    @Test
+    public void subPixelLoopsDoNotAllocate() {
+        view.setSubPixel(true);
+        assertLoopsDoNotAllocate();
+    }
+
+    @Test
+    public void translationPanningNeedsNougat() {
+        view.setTranslationPanning(true);
+        assertLoopsDoNotAllocate();
+        //clip bounds record the view again before Nougat, it keeps scroll panning
+        assertEquals(0, view.getTranslationX(), 0);
+        assertEquals(0, view.getTranslationY(), 0);
+    }
+
+    @Test
+    public void scrollFramesDoNotAllocate() {
+        assertDrawFramesDoNotAllocate(createDetachedView());
+    }
+
+    /**
+     * Neither the loops nor the frames create matrices or rebuild the animator.
+     */
+    private void assertLoopsDoNotAllocate() {
+        animator.resetMetrics();
+        repeats = 0;
+        int matrices = CountingShadowMatrix.getCreated();
+        for (int frame = 0; frame < MAX_FRAMES && repeats < LOOPS; frame++)
+            Robolectric.getForegroundThreadScheduler().advanceBy(FRAME);
+
+        assertEquals(LOOPS, repeats);
+        assertEquals(0, CountingShadowMatrix.getCreated() - matrices);
+        assertEquals(0, animator.getMetrics().getRebuilds());
+    }
+
+    /**
+     * Measures what the view does on each frame of the default backend: the object
+     * animators scroll it, then it's drawn. Second run is measured, the first one warms up.
+     * Scroll callbacks are called directly, the shadow scroll allocates by itself.
+     */
+    private void assertDrawFramesDoNotAllocate(MovingImageView detached) {
+        Canvas canvas = new NoOpCanvas();
+        runDrawFrames(detached, canvas);
+
+        long start = getAllocatedBytes();
+        runDrawFrames(detached, canvas);
+        long allocated = getAllocatedBytes() - start;
+        assertTrue(allocated + " bytes allocated on " + FRAMES + " frames", allocated < ALLOCATION_BUDGET);
+    }
+
+    private static void runDrawFrames(MovingImageView detached, Canvas canvas) {
+        for (int i = 1; i <= FRAMES; i++) {
+            detached.onScrollChanged(i % WIDTH, i % HEIGHT, (i - 1) % WIDTH, (i - 1) % HEIGHT);
+            detached.onDraw(canvas);
+        }
+    }
+
+    /**
+     * Not attached and drawing an image that draws nothing, only the view code runs.
+     */
+    private static MovingImageView createDetachedView() {
+        MovingImageView detached = new MovingImageView(RuntimeEnvironment.application);
+        detached.setImageDrawable(new EmptyImage());
+        detached.layout(0, 0, WIDTH, HEIGHT);
+        detached.getMovingAnimator();
+        return detached;
+    }
+
+    private static Drawable createImage() {
+        return new BitmapDrawable(RuntimeEnvironment.application.getResources(),
+                Bitmap.createBitmap(WIDTH * 2, HEIGHT * 2, Bitmap.Config.ARGB_8888));
+    }
+
+    private static long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Image of twice the view size that draws nothing.
+     */
+    private static class EmptyImage extends Drawable {
+
+        @Override
+        public int getIntrinsicWidth() {
+            return WIDTH * 2;
+        }
+
+        @Override
+        public int getIntrinsicHeight() {
+            return HEIGHT * 2;
+        }
+
+        @Override
+        public void draw(Canvas canvas) {
+        }
+
+        @Override
+        public void setAlpha(int alpha) {
+        }
+
+        @Override
+        public void setColorFilter(ColorFilter colorFilter) {
+        }
+
+        @Override
+        public int getOpacity() {
+            return PixelFormat.OPAQUE;
+        }
+    }
+
+    /**
+     * Canvas that records nothing, the shadow one keeps a description of every call.
+     */
+    private static class NoOpCanvas extends Canvas {
+
+        @Override
+        public int save() {
+            return 1;
+        }
+
+        @Override
+        public int getSaveCount() {
+            return 1;
+        }
+
+        @Override
+        public void restore() {
+        }
+
+        @Override
+        public void restoreToCount(int saveCount) {
+        }
+
+        @Override
+        public void translate(float dx, float dy) {
+        }
+
+        @Override
+        public void scale(float sx, float sy) {
+        }
+
+        @Override
+        public void concat(Matrix matrix) {
+        }
+
+        @Override
+        public boolean clipRect(float left, float top, float right, float bottom) {
+            return true;
+        }
+
+        @Override
+        public boolean clipRect(int left, int top, int right, int bottom) {
+            return true;
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Matrix matrix, Paint paint) {
+        }
+    }
+
+}